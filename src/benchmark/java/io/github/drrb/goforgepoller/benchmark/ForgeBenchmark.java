@@ -0,0 +1,93 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.benchmark;
+
+import com.google.api.client.http.HttpTransport;
+import io.github.drrb.goforgepoller.forge.BackgroundRefresher;
+import io.github.drrb.goforgepoller.forge.CircuitBreakers;
+import io.github.drrb.goforgepoller.forge.Forge;
+import io.github.drrb.goforgepoller.forge.ForgeApi;
+import io.github.drrb.goforgepoller.forge.InFlightRequests;
+import io.github.drrb.goforgepoller.forge.ModuleSpec;
+import io.github.drrb.goforgepoller.forge.ModuleVersion;
+import io.github.drrb.goforgepoller.forge.PingCache;
+import io.github.drrb.goforgepoller.forge.PooledHttpTransport;
+import io.github.drrb.goforgepoller.forge.ReleaseCache;
+import io.github.drrb.goforgepoller.forge.ReleaseOrder;
+import io.github.drrb.goforgepoller.forge.Timeouts;
+import io.github.drrb.goforgepoller.forge.ValidatorCache;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForgeBenchmark {
+
+    @Param({"puppetlabs/stdlib", "puppetlabs/puppetdb"})
+    public String module;
+
+    private StubForge stubForge;
+    private HttpTransport httpTransport;
+    private ModuleSpec moduleSpec;
+    private Forge forge;
+    private Forge cachingForge;
+
+    @Setup
+    public void setUp() throws IOException {
+        Payloads.discardPluginLogging();
+        stubForge = StubForge.start();
+        moduleSpec = ModuleSpec.of(module);
+        httpTransport = PooledHttpTransport.create();
+        forge = new Forge(stubForge.getUrl(), httpTransport);
+        cachingForge = new Forge(stubForge.getUrl(), ForgeApi.V1, ReleaseOrder.UNORDERED, httpTransport, new ValidatorCache(), new ReleaseCache(), new InFlightRequests(), new BackgroundRefresher(), new PluginMetrics(), Timeouts.defaults(), new CircuitBreakers(), new PingCache(), TimeUnit.HOURS.toMillis(1), 0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        httpTransport.shutdown();
+        stubForge.stop();
+    }
+
+    @Benchmark
+    public ModuleVersion getLatestVersion() throws Forge.ModuleNotFound, Forge.Unavailable {
+        return forge.getLatestVersion(moduleSpec);
+    }
+
+    @Benchmark
+    public ModuleVersion getLatestVersionFromCache() throws Forge.ModuleNotFound, Forge.Unavailable {
+        return cachingForge.getLatestVersion(moduleSpec);
+    }
+}
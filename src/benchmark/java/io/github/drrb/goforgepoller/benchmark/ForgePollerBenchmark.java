@@ -0,0 +1,90 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.benchmark;
+
+import com.thoughtworks.go.plugin.api.material.packagerepository.PackageConfiguration;
+import com.thoughtworks.go.plugin.api.material.packagerepository.PackageMaterialPoller;
+import com.thoughtworks.go.plugin.api.material.packagerepository.PackageRevision;
+import com.thoughtworks.go.plugin.api.material.packagerepository.RepositoryConfiguration;
+import io.github.drrb.goforgepoller.ForgeProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.drrb.goforgepoller.ForgePollerPluginConfig.CACHE_TTL_SECONDS;
+import static io.github.drrb.goforgepoller.ForgePollerPluginConfig.FORGE_URL;
+import static io.github.drrb.goforgepoller.ForgePollerPluginConfig.MODULE_NAME;
+import static io.github.drrb.goforgepoller.util.PropertyBuilder.property;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForgePollerBenchmark {
+
+    @Param({"puppetlabs/stdlib", "puppetlabs/puppetdb"})
+    public String module;
+
+    @Param({"0", "30"})
+    public String cacheTtlSeconds;
+
+    private StubForge stubForge;
+    private PackageMaterialPoller poller;
+    private RepositoryConfiguration repoConfig;
+    private PackageConfiguration packageConfig;
+    private PackageRevision lastKnownRevision;
+
+    @Setup
+    public void setUp() throws IOException {
+        Payloads.discardPluginLogging();
+        stubForge = StubForge.start();
+        poller = new ForgeProvider().getPoller();
+
+        repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, stubForge.getUrl().toString()));
+        repoConfig.add(property(CACHE_TTL_SECONDS, cacheTtlSeconds));
+        packageConfig = new PackageConfiguration();
+        packageConfig.add(property(MODULE_NAME, module));
+        lastKnownRevision = new PackageRevision("1.0.0", new Date(), "forge");
+    }
+
+    @TearDown
+    public void tearDown() {
+        stubForge.stop();
+    }
+
+    @Benchmark
+    public PackageRevision latestModificationSince() {
+        return poller.latestModificationSince(packageConfig, repoConfig, lastKnownRevision);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.benchmark;
+
+public class ForgeVersions {
+    private ForgeVersions() {
+    }
+
+    public static String[] releaseHistory(int releaseCount) {
+        String[] versions = new String[releaseCount];
+        int major = 0;
+        int minor = 1;
+        int patch = 0;
+        for (int i = 0; i < releaseCount; i++) {
+            if (i % 40 == 39) {
+                major++;
+                minor = 0;
+                patch = 0;
+            } else if (i % 8 == 7) {
+                minor++;
+                patch = 0;
+            } else {
+                patch++;
+            }
+            String version = major + "." + minor + "." + patch;
+            if (i % 20 == 19) {
+                version += "-rc" + (i % 3 + 1);
+            }
+            versions[i] = version;
+        }
+        return versions;
+    }
+}
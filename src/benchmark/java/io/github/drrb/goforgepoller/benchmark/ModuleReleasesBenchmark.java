@@ -0,0 +1,81 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.benchmark;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
+import io.github.drrb.goforgepoller.forge.api.ModuleReleases;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleReleasesBenchmark {
+
+    @Param({"puppetlabs/stdlib", "puppetlabs/puppetdb"})
+    public String module;
+
+    private JacksonFactory jsonFactory;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonFactory = JacksonFactory.getDefaultInstance();
+        payload = Payloads.releasesOf(module);
+    }
+
+    @Benchmark
+    public ReleaseIndex readReleases() throws IOException {
+        JsonParser parser = jsonFactory.createJsonParser(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+        try {
+            return ModuleReleases.read(parser, module);
+        } finally {
+            parser.close();
+        }
+    }
+
+    //What the plugin used to do for every response, kept as a baseline. Run with "-prof gc" to compare allocations.
+    @Benchmark
+    public ReleaseIndex readReleasesWithNewJsonFactory() throws IOException {
+        JsonParser parser = new JacksonFactory().createJsonParser(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+        try {
+            return ModuleReleases.read(parser, module);
+        } finally {
+            parser.close();
+        }
+    }
+}
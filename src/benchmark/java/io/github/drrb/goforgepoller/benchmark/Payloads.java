@@ -0,0 +1,60 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+public class Payloads {
+    private Payloads() {
+    }
+
+    public static byte[] releasesOf(String moduleName) throws IOException {
+        String resource = "/forge/v1/releases/" + moduleName.replace('/', '-') + ".json";
+        InputStream payload = Payloads.class.getResourceAsStream(resource);
+        if (payload == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = payload.read(buffer)) != -1; ) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        } finally {
+            payload.close();
+        }
+    }
+
+    //Outside Go, the plugin API logs to stdout, which would drown out JMH's output
+    public static void discardPluginLogging() {
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+            }
+        }));
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class StubForge {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, byte[]> releases = new ConcurrentHashMap<>();
+
+    private StubForge(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static StubForge start() throws IOException {
+        //Otherwise small responses wait on delayed ACKs, and we end up measuring those
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        StubForge forge = new StubForge(server, executor);
+        server.createContext("/", forge.new Handler());
+        server.setExecutor(executor);
+        server.start();
+        return forge;
+    }
+
+    public URL getUrl() throws IOException {
+        return new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), "");
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private byte[] releasesOf(String moduleName) throws IOException {
+        byte[] payload = releases.get(moduleName);
+        if (payload == null) {
+            payload = Payloads.releasesOf(moduleName);
+            if (payload != null) {
+                releases.put(moduleName, payload);
+            }
+        }
+        return payload;
+    }
+
+    private class Handler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                String path = exchange.getRequestURI().getPath();
+                if (path.equals("/")) {
+                    respond(exchange, 200, new byte[0]);
+                } else if (path.equals("/api/v1/releases.json")) {
+                    byte[] payload = releasesOf(moduleParameter(exchange.getRequestURI().getRawQuery()));
+                    if (payload == null) {
+                        respond(exchange, 410, "{\"error\":\"Module not found\"}".getBytes("UTF-8"));
+                    } else {
+                        respond(exchange, 200, payload);
+                    }
+                } else {
+                    respond(exchange, 404, new byte[0]);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private String moduleParameter(String query) throws IOException {
+            if (query != null) {
+                for (String parameter : query.split("&")) {
+                    if (parameter.startsWith("module=")) {
+                        return URLDecoder.decode(parameter.substring("module=".length()), "UTF-8");
+                    }
+                }
+            }
+            return "";
+        }
+
+        private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            OutputStream responseBody = exchange.getResponseBody();
+            responseBody.write(body);
+            responseBody.close();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.benchmark;
+
+import io.github.drrb.goforgepoller.forge.Version;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionBenchmark {
+
+    //More versions than Version interns, so none of them are still interned by the time they come around again
+    private static final int UNIQUE_VERSION_LISTS = 100;
+
+    private String[] versions;
+    private String[] uniqueVersions;
+    private int nextUniqueVersion;
+    private Version[] shuffledVersions;
+    private RegexVersion[] shuffledRegexVersions;
+
+    @Setup
+    public void setUp() {
+        versions = ForgeVersions.releaseHistory(300);
+        uniqueVersions = new String[versions.length * UNIQUE_VERSION_LISTS];
+        for (int list = 0; list < UNIQUE_VERSION_LISTS; list++) {
+            for (int i = 0; i < versions.length; i++) {
+                String version = versions[i];
+                int firstDot = version.indexOf('.');
+                uniqueVersions[list * versions.length + i] = (Integer.parseInt(version.substring(0, firstDot)) + 10 * list) + version.substring(firstDot);
+            }
+        }
+        List<String> shuffled = new ArrayList<>(Arrays.asList(versions));
+        Collections.shuffle(shuffled, new Random(1));
+        shuffledVersions = new Version[shuffled.size()];
+        shuffledRegexVersions = new RegexVersion[shuffled.size()];
+        for (int i = 0; i < shuffled.size(); i++) {
+            shuffledVersions[i] = Version.of(shuffled.get(i));
+            shuffledRegexVersions[i] = RegexVersion.of(shuffled.get(i));
+        }
+    }
+
+    //After the first invocation every version is interned, so this measures looking them up again
+    @Benchmark
+    public void parseVersionList(Blackhole blackhole) {
+        for (String version : versions) {
+            blackhole.consume(Version.of(version));
+        }
+    }
+
+    //Versions we haven't seen yet, which have to be parsed (and interned)
+    @Benchmark
+    public void parseNewVersionList(Blackhole blackhole) {
+        int start = nextUniqueVersion;
+        for (int i = start; i < start + versions.length; i++) {
+            blackhole.consume(Version.of(uniqueVersions[i]));
+        }
+        nextUniqueVersion = (start + versions.length) % uniqueVersions.length;
+    }
+
+    @Benchmark
+    public void validateVersionList(Blackhole blackhole) {
+        for (String version : versions) {
+            blackhole.consume(Version.isValid(version));
+        }
+    }
+
+    @Benchmark
+    public Version[] sortVersionList() {
+        Version[] sorted = shuffledVersions.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    @Benchmark
+    public void parseVersionListWithRegexes(Blackhole blackhole) {
+        for (String version : versions) {
+            blackhole.consume(RegexVersion.of(version));
+        }
+    }
+
+    @Benchmark
+    public void validateVersionListWithRegexes(Blackhole blackhole) {
+        for (String version : versions) {
+            blackhole.consume(RegexVersion.isValid(version));
+        }
+    }
+
+    @Benchmark
+    public RegexVersion[] sortVersionListOfObjects() {
+        RegexVersion[] sorted = shuffledRegexVersions.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    //The regex-based parsing and List<Object> comparison that Version used to do, kept as a baseline
+    private static class RegexVersion implements Comparable<RegexVersion> {
+        private final String string;
+        private final List<Object> components;
+
+        private RegexVersion(String string) {
+            if (!isValid(string)) {
+                throw new IllegalArgumentException(string);
+            }
+            this.string = string.replaceAll("-", ".pre.");
+            this.components = parse(string);
+        }
+
+        static boolean isValid(String string) {
+            return string.matches("\\A\\d+([.-][a-zA-Z0-9]+)*\\Z");
+        }
+
+        static RegexVersion of(String string) {
+            return new RegexVersion(string);
+        }
+
+        private static List<Object> parse(String string) {
+            String[] parts = string.split("\\.");
+            List<Object> components = new ArrayList<>(parts.length);
+            for (String part : parts) {
+                if (part.matches("\\d+")) {
+                    components.add(Integer.valueOf(part));
+                } else {
+                    components.add(part);
+                }
+            }
+            return components;
+        }
+
+        @Override
+        public int compareTo(RegexVersion that) {
+            for (int i = 0; i < this.components.size() && i < that.components.size(); i++) {
+                Object partA = this.components.get(i);
+                Object partB = that.components.get(i);
+                if (!partA.equals(partB)) {
+                    return compareParts(partA, partB);
+                }
+            }
+            return Integer.compare(this.components.size(), that.components.size());
+        }
+
+        private static int compareParts(Object partA, Object partB) {
+            if (partA instanceof String && partB instanceof Integer) {
+                return -1;
+            } else if (partA instanceof Integer && partB instanceof String) {
+                return 1;
+            } else if (partA instanceof Integer) {
+                return ((Integer) partA).compareTo((Integer) partB);
+            } else {
+                return ((String) partA).compareTo((String) partB);
+            }
+        }
+    }
+}
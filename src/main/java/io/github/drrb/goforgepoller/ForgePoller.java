@@ -25,7 +25,10 @@ import com.thoughtworks.go.plugin.api.response.Result;
 import io.github.drrb.goforgepoller.forge.Forge;
 import io.github.drrb.goforgepoller.forge.ModuleSpec;
 import io.github.drrb.goforgepoller.forge.ModuleVersion;
+import io.github.drrb.goforgepoller.forge.Prefetcher;
 import io.github.drrb.goforgepoller.forge.Version;
+import io.github.drrb.goforgepoller.metrics.Outcome;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
 import io.github.drrb.goforgepoller.util.EntryPoint;
 import io.github.drrb.goforgepoller.util.Log;
 
@@ -39,11 +42,15 @@ public class ForgePoller implements PackageMaterialPoller {
     private final Log LOG = Log.getLogFor(ForgePoller.class);
     private final Forge.Factory forgeFactory;
     private final ModuleSpec.Factory moduleSpecFactory;
+    private final PluginMetrics metrics;
+    private final Prefetcher prefetcher;
 
     @Inject
-    public ForgePoller(Forge.Factory forgeFactory, ModuleSpec.Factory moduleSpecFactory) {
+    public ForgePoller(Forge.Factory forgeFactory, ModuleSpec.Factory moduleSpecFactory, PluginMetrics metrics, Prefetcher prefetcher) {
         this.forgeFactory = forgeFactory;
         this.moduleSpecFactory = moduleSpecFactory;
+        this.metrics = metrics;
+        this.prefetcher = prefetcher;
     }
 
     @Override
@@ -82,12 +89,19 @@ public class ForgePoller implements PackageMaterialPoller {
         Forge forge = forgeFactory.build(repositoryConfiguration);
 
         LOG.info("Looking up latest revision of module %s in forge %s", module, forge);
+        long start = System.nanoTime();
+        prefetcher.polled(forge, module);
         try {
             ModuleVersion latestRelease = forge.getLatestVersion(module);
+            recordOutcome(forge, module, Outcome.NEW_REVISION, start);
             return latestRelease.toPackageRevision();
         } catch (Forge.ModuleNotFound moduleNotFound) {
+            recordOutcome(forge, module, Outcome.MODULE_NOT_FOUND, start);
             LOG.info("Module %s not found in forge %s: %s", module, forge, moduleNotFound);
             return null;
+        } catch (Forge.Unavailable unavailable) {
+            recordOutcome(forge, module, Outcome.FORGE_UNAVAILABLE, start);
+            throw new RuntimeException(String.format("Couldn't look up module %s: %s", module, unavailable.getMessage()), unavailable);
         }
     }
 
@@ -99,17 +113,29 @@ public class ForgePoller implements PackageMaterialPoller {
         Version lastKnownReleaseVersion = Version.of(lastKnownRevision.getRevision());
 
         LOG.info("Looking up latest release of module %s in forge %s since version %s", module, forge, lastKnownReleaseVersion);
+        long start = System.nanoTime();
+        prefetcher.polled(forge, module);
         try {
             ModuleVersion latestRelease = forge.getLatestVersion(module);
             if (latestRelease.getVersion().isGreaterThan(lastKnownReleaseVersion)) {
                 //TODO: warn if this release is earlier than lastKnownRevision
+                recordOutcome(forge, module, Outcome.NEW_REVISION, start);
                 return latestRelease.toPackageRevision();
             } else {
+                recordOutcome(forge, module, Outcome.NO_CHANGE, start);
                 return null;
             }
         } catch (Forge.ModuleNotFound moduleNotFound) {
+            recordOutcome(forge, module, Outcome.MODULE_NOT_FOUND, start);
             LOG.info("Module %s not found in forge %s: %s", module, forge, moduleNotFound);
             return null;
+        } catch (Forge.Unavailable unavailable) {
+            recordOutcome(forge, module, Outcome.FORGE_UNAVAILABLE, start);
+            throw new RuntimeException(String.format("Couldn't look up module %s: %s", module, unavailable.getMessage()), unavailable);
         }
     }
+
+    private void recordOutcome(Forge forge, ModuleSpec module, Outcome outcome, long start) {
+        metrics.forModule(String.valueOf(forge.getBaseUrl()), module.getName()).record(outcome, System.nanoTime() - start);
+    }
 }
@@ -17,14 +17,29 @@
  */
 package io.github.drrb.goforgepoller;
 
+import com.google.api.client.http.HttpTransport;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import com.google.inject.matcher.Matchers;
+import io.github.drrb.goforgepoller.forge.PooledHttpTransport;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
 import io.github.drrb.goforgepoller.util.EntryPoint;
 import io.github.drrb.goforgepoller.util.EntryPointLogger;
 
 public class ForgePollerModule extends AbstractModule {
     @Override
     protected void configure() {
-        bindInterceptor(Matchers.any(), Matchers.annotatedWith(EntryPoint.class), new EntryPointLogger());
+        bindInterceptor(Matchers.any(), Matchers.annotatedWith(EntryPoint.class), new EntryPointLogger(getProvider(PluginMetrics.class)));
+    }
+
+    @Provides @Singleton
+    PluginMetrics providePluginMetrics() {
+        return PluginMetrics.create();
+    }
+
+    @Provides @Singleton
+    HttpTransport provideHttpTransport() {
+        return PooledHttpTransport.create();
     }
 }
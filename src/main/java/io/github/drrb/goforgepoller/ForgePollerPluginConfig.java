@@ -22,6 +22,9 @@ import com.thoughtworks.go.plugin.api.material.packagerepository.PackageMaterial
 import com.thoughtworks.go.plugin.api.material.packagerepository.RepositoryConfiguration;
 import com.thoughtworks.go.plugin.api.response.validation.ValidationError;
 import com.thoughtworks.go.plugin.api.response.validation.ValidationResult;
+import io.github.drrb.goforgepoller.forge.ForgeApi;
+import io.github.drrb.goforgepoller.forge.ReleaseOrder;
+import io.github.drrb.goforgepoller.forge.Timeouts;
 import io.github.drrb.goforgepoller.forge.Version;
 import io.github.drrb.goforgepoller.util.EntryPoint;
 import io.github.drrb.goforgepoller.util.Log;
@@ -36,6 +39,15 @@ public class ForgePollerPluginConfig implements PackageMaterialConfiguration {
     private static final Log LOG = Log.getLogFor(ForgePollerPluginConfig.class);
 
     public static final String FORGE_URL = "FORGE_URL";
+    public static final String CACHE_TTL_SECONDS = "CACHE_TTL_SECONDS";
+    public static final int DEFAULT_CACHE_TTL_SECONDS = 30;
+    public static final String API_VERSION = "API_VERSION";
+    public static final String RELEASES_NEWEST_FIRST = "RELEASES_NEWEST_FIRST";
+    public static final String CONNECT_TIMEOUT_SECONDS = "CONNECT_TIMEOUT_SECONDS";
+    public static final String READ_TIMEOUT_SECONDS = "READ_TIMEOUT_SECONDS";
+    public static final String ADAPTIVE_TIMEOUTS = "ADAPTIVE_TIMEOUTS";
+    public static final String MAX_STALE_SECONDS = "MAX_STALE_SECONDS";
+    public static final int DEFAULT_MAX_STALE_SECONDS = 300;
 
     public static final String MODULE_NAME = "MODULE_NAME";
     public static final String LOWER_VERSION_BOUND_INCLUSIVE = "LOWER_VERSION_BOUND_INCLUSIVE";
@@ -45,7 +57,49 @@ public class ForgePollerPluginConfig implements PackageMaterialConfiguration {
     @EntryPoint
     public RepositoryConfiguration getRepositoryConfiguration() {
         RepositoryConfiguration repoConfig = new RepositoryConfiguration();
-        repoConfig.add(property(FORGE_URL).withDisplayName("Forge URL").build());
+        repoConfig.add(property(FORGE_URL).withDisplayName("Forge URL").withDisplayOrder(0).build());
+        repoConfig.add(property(CACHE_TTL_SECONDS)
+                .withRequired(false)
+                .withDisplayName("Seconds to cache module releases (default " + DEFAULT_CACHE_TTL_SECONDS + ")")
+                .withPartOfIdentity(false)
+                .withDisplayOrder(1)
+                .build());
+        repoConfig.add(property(API_VERSION)
+                .withRequired(false)
+                .withDisplayName("Forge API version (1 or 3, default 1)")
+                .withPartOfIdentity(false)
+                .withDisplayOrder(2)
+                .build());
+        repoConfig.add(property(RELEASES_NEWEST_FIRST)
+                .withRequired(false)
+                .withDisplayName("Forge lists releases newest version first (true or false, default false)")
+                .withPartOfIdentity(false)
+                .withDisplayOrder(3)
+                .build());
+        repoConfig.add(property(CONNECT_TIMEOUT_SECONDS)
+                .withRequired(false)
+                .withDisplayName("Seconds to wait to connect to the forge (default " + Timeouts.DEFAULT_SECONDS + ")")
+                .withPartOfIdentity(false)
+                .withDisplayOrder(4)
+                .build());
+        repoConfig.add(property(READ_TIMEOUT_SECONDS)
+                .withRequired(false)
+                .withDisplayName("Seconds to wait for the forge to respond (default " + Timeouts.DEFAULT_SECONDS + ")")
+                .withPartOfIdentity(false)
+                .withDisplayOrder(5)
+                .build());
+        repoConfig.add(property(ADAPTIVE_TIMEOUTS)
+                .withRequired(false)
+                .withDisplayName("Wait less for the forge to respond when it usually responds quickly (true or false, default false)")
+                .withPartOfIdentity(false)
+                .withDisplayOrder(6)
+                .build());
+        repoConfig.add(property(MAX_STALE_SECONDS)
+                .withRequired(false)
+                .withDisplayName("Seconds to keep using expired releases while refreshing them (default " + DEFAULT_MAX_STALE_SECONDS + ")")
+                .withPartOfIdentity(false)
+                .withDisplayOrder(7)
+                .build());
         return repoConfig;
     }
 
@@ -78,7 +132,15 @@ public class ForgePollerPluginConfig implements PackageMaterialConfiguration {
     public ValidationResult isRepositoryConfigurationValid(RepositoryConfiguration repositoryConfiguration) {
         SaferConfiguration configuration = new SaferConfiguration(repositoryConfiguration);
         String forgeUrl = configuration.get(FORGE_URL);
-        LOG.info("Validating configuration for forge (URL = %s)", forgeUrl);
+        String cacheTtlSeconds = configuration.get(CACHE_TTL_SECONDS);
+        String apiVersion = configuration.get(API_VERSION);
+        String releasesNewestFirst = configuration.get(RELEASES_NEWEST_FIRST);
+        String connectTimeoutSeconds = configuration.get(CONNECT_TIMEOUT_SECONDS);
+        String readTimeoutSeconds = configuration.get(READ_TIMEOUT_SECONDS);
+        String adaptiveTimeouts = configuration.get(ADAPTIVE_TIMEOUTS);
+        String maxStaleSeconds = configuration.get(MAX_STALE_SECONDS);
+        LOG.info("Validating configuration for forge (URL = %s, cacheTtlSeconds = %s, apiVersion = %s, releasesNewestFirst = %s, connectTimeoutSeconds = %s, readTimeoutSeconds = %s, adaptiveTimeouts = %s, maxStaleSeconds = %s)",
+                forgeUrl, cacheTtlSeconds, apiVersion, releasesNewestFirst, connectTimeoutSeconds, readTimeoutSeconds, adaptiveTimeouts, maxStaleSeconds);
 
         ValidationResult validationResult = new ValidationResult();
         if (forgeUrl.isEmpty()) {
@@ -93,6 +155,34 @@ public class ForgePollerPluginConfig implements PackageMaterialConfiguration {
                 validationResult.addError(new ValidationError(FORGE_URL, "Forge URL must be a URL"));
             }
         }
+
+        if (!cacheTtlSeconds.matches("\\A\\d{0,9}\\Z")) {
+            validationResult.addError(new ValidationError(CACHE_TTL_SECONDS, "Seconds to cache module releases should be a whole number"));
+        }
+
+        if (!ForgeApi.isSupported(apiVersion)) {
+            validationResult.addError(new ValidationError(API_VERSION, "Forge API version should be 1 or 3"));
+        }
+
+        if (!ReleaseOrder.isValidSetting(releasesNewestFirst)) {
+            validationResult.addError(new ValidationError(RELEASES_NEWEST_FIRST, "Forge lists releases newest version first should be true or false"));
+        }
+
+        if (!Timeouts.isValidSeconds(connectTimeoutSeconds)) {
+            validationResult.addError(new ValidationError(CONNECT_TIMEOUT_SECONDS, "Seconds to wait to connect to the forge should be a whole number greater than 0"));
+        }
+
+        if (!Timeouts.isValidSeconds(readTimeoutSeconds)) {
+            validationResult.addError(new ValidationError(READ_TIMEOUT_SECONDS, "Seconds to wait for the forge to respond should be a whole number greater than 0"));
+        }
+
+        if (!Timeouts.isValidAdaptiveSetting(adaptiveTimeouts)) {
+            validationResult.addError(new ValidationError(ADAPTIVE_TIMEOUTS, "Wait less for the forge to respond should be true or false"));
+        }
+
+        if (!maxStaleSeconds.matches("\\A\\d{0,9}\\Z")) {
+            validationResult.addError(new ValidationError(MAX_STALE_SECONDS, "Seconds to keep using expired releases should be a whole number"));
+        }
         return validationResult;
     }
 
@@ -20,8 +20,11 @@ package io.github.drrb.goforgepoller;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.thoughtworks.go.plugin.api.annotation.Extension;
+import com.thoughtworks.go.plugin.api.annotation.UnLoad;
+import com.thoughtworks.go.plugin.api.info.PluginContext;
 import com.thoughtworks.go.plugin.api.material.packagerepository.PackageMaterialPoller;
 import com.thoughtworks.go.plugin.api.material.packagerepository.PackageMaterialProvider;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
 
 @Extension
 public class ForgeProvider implements PackageMaterialProvider {
@@ -39,4 +42,9 @@ public class ForgeProvider implements PackageMaterialProvider {
     public PackageMaterialPoller getPoller() {
         return injector.getInstance(ForgePoller.class);
     }
+
+    @UnLoad
+    public void unload(PluginContext context) {
+        injector.getInstance(PluginMetrics.class).close();
+    }
 }
@@ -0,0 +1,79 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Log;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+//Refreshes stale releases without making anyone wait for them, and only once at a time for each module
+@Singleton
+public class BackgroundRefresher {
+    private static final int THREADS = 4;
+
+    private static final Executor refreshers = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "forge-refresher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Log LOG = Log.getLogFor(BackgroundRefresher.class);
+    private final Executor executor;
+    private final ConcurrentMap<String, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    @Inject
+    public BackgroundRefresher() {
+        this(refreshers);
+    }
+
+    public BackgroundRefresher(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void refresh(final String key, final Runnable refresh) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refresh.run();
+                    } catch (RuntimeException e) {
+                        LOG.error(String.format("Failed to refresh %s", key), e);
+                    } finally {
+                        refreshing.remove(key);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Clock;
+import io.github.drrb.goforgepoller.util.Log;
+
+//Stops us waiting on a forge that keeps failing. Once enough of its recent requests fail, the circuit opens and
+//requests to the forge fail straight away. After a cool-down, one trial request is let through: if it works, the
+//circuit closes again, and if it fails, the circuit stays open for another cool-down.
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    //So a couple of failures right after startup don't open the circuit
+    private static final int MIN_REQUESTS = 5;
+    private static final Log LOG = Log.getLogFor(CircuitBreaker.class);
+
+    private final String forge;
+    private final Clock clock;
+    private final int failureRatePercent;
+    private final long coolDownMillis;
+    //Whether each of the most recent requests failed, oldest overwritten first
+    private final boolean[] recentFailures;
+    private int recentRequests;
+    private int recentFailureCount;
+    private int nextRequest;
+    private State state = State.CLOSED;
+    //When the circuit opened, or when the trial request started
+    private long stateChangedTime;
+
+    //A failure rate of 0 means the circuit never opens
+    public CircuitBreaker(String forge, Clock clock, int windowSize, int failureRatePercent, long coolDownMillis) {
+        this.forge = forge;
+        this.clock = clock;
+        this.failureRatePercent = failureRatePercent;
+        this.coolDownMillis = coolDownMillis;
+        this.recentFailures = new boolean[Math.max(windowSize, 1)];
+    }
+
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.currentTimeMillis() - stateChangedTime >= coolDownMillis) {
+                    LOG.info("Trying forge %s again", forge);
+                    return startTrial();
+                }
+                return false;
+            default:
+                //Unless the trial request never told us how it went, it's still going
+                return clock.currentTimeMillis() - stateChangedTime >= coolDownMillis && startTrial();
+        }
+    }
+
+    public synchronized void succeeded() {
+        if (state == State.HALF_OPEN) {
+            LOG.info("Forge %s is working again", forge);
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void failed() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (failureRatePercent > 0 && recentRequests >= Math.min(MIN_REQUESTS, recentFailures.length)
+                    && recentFailureCount * 100 >= failureRatePercent * recentRequests) {
+                LOG.info("%d of the last %d requests to forge %s failed, so not trying it again for %d ms", recentFailureCount, recentRequests, forge, coolDownMillis);
+                open();
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getCoolDownMillis() {
+        return coolDownMillis;
+    }
+
+    private void record(boolean failed) {
+        if (recentRequests == recentFailures.length) {
+            recentFailureCount -= recentFailures[nextRequest] ? 1 : 0;
+        } else {
+            recentRequests++;
+        }
+        recentFailures[nextRequest] = failed;
+        recentFailureCount += failed ? 1 : 0;
+        nextRequest = (nextRequest + 1) % recentFailures.length;
+    }
+
+    private boolean startTrial() {
+        state = State.HALF_OPEN;
+        stateChangedTime = clock.currentTimeMillis();
+        return true;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        stateChangedTime = clock.currentTimeMillis();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recentRequests = 0;
+        recentFailureCount = 0;
+        nextRequest = 0;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Clock;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+//One circuit breaker for each forge, shared by everything that talks to it
+@Singleton
+public class CircuitBreakers {
+    public static final String WINDOW_SIZE = "goforgepoller.circuitBreaker.windowSize";
+    public static final String FAILURE_RATE_PERCENT = "goforgepoller.circuitBreaker.failureRatePercent";
+    public static final String COOL_DOWN_SECONDS = "goforgepoller.circuitBreaker.coolDownSeconds";
+
+    private static final int DEFAULT_WINDOW_SIZE = 20;
+    private static final int DEFAULT_FAILURE_RATE_PERCENT = 50;
+    private static final int DEFAULT_COOL_DOWN_SECONDS = 30;
+
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final int windowSize;
+    private final int failureRatePercent;
+    private final long coolDownMillis;
+
+    @Inject
+    public CircuitBreakers() {
+        this(Clock.SYSTEM,
+                Integer.getInteger(WINDOW_SIZE, DEFAULT_WINDOW_SIZE),
+                Integer.getInteger(FAILURE_RATE_PERCENT, DEFAULT_FAILURE_RATE_PERCENT),
+                TimeUnit.SECONDS.toMillis(Integer.getInteger(COOL_DOWN_SECONDS, DEFAULT_COOL_DOWN_SECONDS)));
+    }
+
+    public CircuitBreakers(Clock clock, int windowSize, int failureRatePercent, long coolDownMillis) {
+        this.clock = clock;
+        this.windowSize = windowSize;
+        this.failureRatePercent = failureRatePercent;
+        this.coolDownMillis = coolDownMillis;
+    }
+
+    public CircuitBreaker forForge(String forge) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(forge);
+        if (circuitBreaker == null) {
+            circuitBreakers.putIfAbsent(forge, new CircuitBreaker(forge, clock, windowSize, failureRatePercent, coolDownMillis));
+            circuitBreaker = circuitBreakers.get(forge);
+        }
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+//Inflates "deflate" encoded responses as they're read. The HTTP spec says they're zlib streams, but some servers send
+//raw deflate data, so we check for a zlib header first.
+class DeflatedContent {
+
+    private DeflatedContent() {
+    }
+
+    static InputStream inflate(InputStream content) throws IOException {
+        InputStream buffered = new BufferedInputStream(content);
+        buffered.mark(2);
+        int compressionMethodAndFlags = buffered.read();
+        int flags = buffered.read();
+        buffered.reset();
+        return new InflaterInputStream(buffered, new Inflater(!isZlibHeader(compressionMethodAndFlags, flags))) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inf.end();
+                }
+            }
+        };
+    }
+
+    private static boolean isZlibHeader(int compressionMethodAndFlags, int flags) {
+        return flags != -1 && (compressionMethodAndFlags & 0x0f) == 8 && ((compressionMethodAndFlags << 8) | flags) % 31 == 0;
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.forge.api.ReleasePage;
+import io.github.drrb.goforgepoller.util.Digests;
+import io.github.drrb.goforgepoller.util.Log;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Singleton
+public class DiskCache {
+    public static final String DIRECTORY = "goforgepoller.cache.dir";
+    public static final String MAX_ENTRIES = "goforgepoller.cache.maxDiskEntries";
+
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final int FORMAT_VERSION = 2;
+    private static final String SUFFIX = ".releases";
+
+    private final Log LOG = Log.getLogFor(DiskCache.class);
+    private final File directory;
+    private final int maxEntries;
+    private final AtomicInteger entryCount = new AtomicInteger(-1);
+
+    @Inject
+    public DiskCache() {
+        this(directory(System.getProperty(DIRECTORY)), Integer.getInteger(MAX_ENTRIES, DEFAULT_MAX_ENTRIES));
+    }
+
+    public DiskCache(File directory, int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    public static DiskCache disabled() {
+        return new DiskCache(null, 0);
+    }
+
+    private static File directory(String path) {
+        return path == null || path.trim().isEmpty() ? null : new File(path.trim());
+    }
+
+    public boolean isEnabled() {
+        return directory != null && maxEntries > 0;
+    }
+
+    public ValidatorCache.Entry load(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        File file = fileFor(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !in.readUTF().equals(key)) {
+                return null;
+            }
+            String etag = readNullable(in);
+            String lastModified = readNullable(in);
+            String next = readNullable(in);
+            int size = in.readInt();
+            ReleaseIndex.Builder releases = ReleaseIndex.builder();
+            for (int i = 0; i < size; i++) {
+                releases.add(Version.of(in.readUTF()), readNullable(in));
+            }
+            return new ValidatorCache.Entry(etag, lastModified, new ReleasePage(releases.build(), next));
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Ignoring unreadable cache file %s: %s", file, e);
+            delete(file);
+            return null;
+        }
+    }
+
+    public void store(String key, ValidatorCache.Entry entry) {
+        if (!isEnabled() || !(entry.getContent() instanceof ReleasePage)) {
+            return;
+        }
+        ReleasePage page = entry.getContent();
+        ReleaseIndex releases = page.getReleases();
+        File file = fileFor(key);
+        File tempFile = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                writeNullable(out, entry.getEtag());
+                writeNullable(out, entry.getLastModified());
+                writeNullable(out, page.getNext());
+                out.writeInt(releases.size());
+                for (int i = 0; i < releases.size(); i++) {
+                    out.writeUTF(releases.versionAt(i).getSource());
+                    writeNullable(out, releases.fileAt(i));
+                }
+            }
+            boolean isNew = !file.exists();
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            if (isNew) {
+                entryAdded();
+            }
+        } catch (IOException e) {
+            LOG.info("Failed to write cache file %s: %s", file, e);
+            if (tempFile != null) {
+                delete(tempFile);
+            }
+        }
+    }
+
+    public void remove(String key) {
+        if (isEnabled() && delete(fileFor(key))) {
+            //Leave the count alone if we haven't counted the entries yet (-1), and never take it below zero
+            while (true) {
+                int count = entryCount.get();
+                if (count <= 0 || entryCount.compareAndSet(count, count - 1)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    //Counted lazily, so startup doesn't have to list the cache directory
+    private void entryAdded() {
+        int count = entryCount.get() < 0 ? countEntries() : entryCount.incrementAndGet();
+        if (count > maxEntries) {
+            evictOldestEntries();
+        }
+    }
+
+    private int countEntries() {
+        int count = cacheFiles().length;
+        entryCount.compareAndSet(-1, count);
+        return count;
+    }
+
+    private synchronized void evictOldestEntries() {
+        File[] files = cacheFiles();
+        if (files.length <= maxEntries) {
+            entryCount.set(files.length);
+            return;
+        }
+        final long[] lastModified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            lastModified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(lastModified[a], lastModified[b]);
+            }
+        });
+        int remaining = files.length;
+        for (int i = 0; i < order.length && remaining > maxEntries; i++) {
+            if (delete(files[order[i]])) {
+                remaining--;
+            }
+        }
+        entryCount.set(remaining);
+    }
+
+    private File[] cacheFiles() {
+        File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.getName().endsWith(SUFFIX);
+            }
+        });
+        return files == null ? new File[0] : files;
+    }
+
+    private File fileFor(String key) {
+        return new File(directory, Digests.hex("SHA-1", key) + SUFFIX);
+    }
+
+    private static boolean delete(File file) {
+        try {
+            return Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
@@ -18,31 +18,134 @@
 package io.github.drrb.goforgepoller.forge;
 
 import com.google.api.client.http.*;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.JsonObjectParser;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonParser;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.thoughtworks.go.plugin.api.material.packagerepository.RepositoryConfiguration;
 import io.github.drrb.goforgepoller.ForgePollerPluginConfig;
-import io.github.drrb.goforgepoller.forge.api.ModuleMetadata;
 import io.github.drrb.goforgepoller.forge.api.ModuleRelease;
-import io.github.drrb.goforgepoller.forge.api.ModuleReleases;
+import io.github.drrb.goforgepoller.forge.api.ReleasePage;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
+import io.github.drrb.goforgepoller.metrics.RequestTimer;
+import io.github.drrb.goforgepoller.util.Digests;
+import io.github.drrb.goforgepoller.util.Log;
+import io.github.drrb.goforgepoller.util.SaferConfiguration;
 
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class Forge {
+    public static final String BATCH_SIZE = "goforgepoller.forge.batchSize";
 
+    //Keeps one forge for each configuration, so what it learns about the forge carries over from call to call.
+    //Configurations that stop being used are forgotten once there are too many.
+    @Singleton
     public static class Factory {
+        //Far more forge configurations than a Go server is likely to poll
+        private static final int MAX_FORGES = 100;
+
+        private final HttpTransport httpTransport;
+        private final ValidatorCache validatorCache;
+        private final ReleaseCache releaseCache;
+        private final InFlightRequests inFlightRequests;
+        private final BackgroundRefresher backgroundRefresher;
+        private final ResponseTimes responseTimes;
+        private final CircuitBreakers circuitBreakers;
+        private final PingCache pingCache;
+        private final PluginMetrics metrics;
+        private final Map<List<String>, Forge> forges = new LinkedHashMap<List<String>, Forge>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, Forge> eldest) {
+                return size() > MAX_FORGES;
+            }
+        };
+
+        @Inject
+        public Factory(HttpTransport httpTransport, ValidatorCache validatorCache, ReleaseCache releaseCache, InFlightRequests inFlightRequests, BackgroundRefresher backgroundRefresher, ResponseTimes responseTimes, CircuitBreakers circuitBreakers, PingCache pingCache, PluginMetrics metrics) {
+            this.httpTransport = httpTransport;
+            this.validatorCache = validatorCache;
+            this.releaseCache = releaseCache;
+            this.inFlightRequests = inFlightRequests;
+            this.backgroundRefresher = backgroundRefresher;
+            this.responseTimes = responseTimes;
+            this.circuitBreakers = circuitBreakers;
+            this.pingCache = pingCache;
+            this.metrics = metrics;
+        }
+
         public Forge build(RepositoryConfiguration repoConfig) {
-            String baseUrl = repoConfig.get(ForgePollerPluginConfig.FORGE_URL).getValue();
+            SaferConfiguration config = new SaferConfiguration(repoConfig);
+            URL baseUrl = normalize(config.get(ForgePollerPluginConfig.FORGE_URL));
+            List<String> configuration = Arrays.asList(
+                    baseUrl.toString(),
+                    config.get(ForgePollerPluginConfig.CACHE_TTL_SECONDS),
+                    config.get(ForgePollerPluginConfig.API_VERSION),
+                    config.get(ForgePollerPluginConfig.RELEASES_NEWEST_FIRST),
+                    config.get(ForgePollerPluginConfig.CONNECT_TIMEOUT_SECONDS),
+                    config.get(ForgePollerPluginConfig.READ_TIMEOUT_SECONDS),
+                    config.get(ForgePollerPluginConfig.ADAPTIVE_TIMEOUTS),
+                    config.get(ForgePollerPluginConfig.MAX_STALE_SECONDS)
+            );
+            synchronized (forges) {
+                Forge forge = forges.get(configuration);
+                if (forge == null) {
+                    forge = build(baseUrl, config);
+                    forges.put(configuration, forge);
+                }
+                return forge;
+            }
+        }
+
+        private Forge build(URL baseUrl, SaferConfiguration config) {
+            String cacheTtlSeconds = config.get(ForgePollerPluginConfig.CACHE_TTL_SECONDS);
+            int cacheTtl = cacheTtlSeconds.isEmpty() ? ForgePollerPluginConfig.DEFAULT_CACHE_TTL_SECONDS : Integer.parseInt(cacheTtlSeconds);
+            String maxStaleSeconds = config.get(ForgePollerPluginConfig.MAX_STALE_SECONDS);
+            int maxStale = maxStaleSeconds.isEmpty() ? ForgePollerPluginConfig.DEFAULT_MAX_STALE_SECONDS : Integer.parseInt(maxStaleSeconds);
+            ForgeApi api = ForgeApi.forVersion(config.get(ForgePollerPluginConfig.API_VERSION));
+            ReleaseOrder releaseOrder = ReleaseOrder.forSetting(config.get(ForgePollerPluginConfig.RELEASES_NEWEST_FIRST));
+            Timeouts timeouts = Timeouts.forSettings(
+                    config.get(ForgePollerPluginConfig.CONNECT_TIMEOUT_SECONDS),
+                    config.get(ForgePollerPluginConfig.READ_TIMEOUT_SECONDS),
+                    config.get(ForgePollerPluginConfig.ADAPTIVE_TIMEOUTS),
+                    responseTimes
+            );
+            return new Forge(baseUrl, api, releaseOrder, httpTransport, validatorCache, releaseCache, inFlightRequests, backgroundRefresher, metrics, timeouts, circuitBreakers, pingCache, TimeUnit.SECONDS.toMillis(cacheTtl), TimeUnit.SECONDS.toMillis(maxStale));
+        }
+
+        //So "HTTP://Forge.example.com:80/" and "http://forge.example.com" share a forge. Different credentials still get
+        //different forges, so the user info stays.
+        private static URL normalize(String baseUrl) {
             try {
-                return new Forge(new URL(baseUrl), new NetHttpTransport());
+                URL url = new URL(baseUrl);
+                StringBuilder normalized = new StringBuilder(url.getProtocol().toLowerCase(Locale.ENGLISH)).append("://");
+                if (url.getUserInfo() != null) {
+                    normalized.append(url.getUserInfo()).append("@");
+                }
+                normalized.append(url.getHost().toLowerCase(Locale.ENGLISH));
+                if (url.getPort() != -1 && url.getPort() != url.getDefaultPort()) {
+                    normalized.append(":").append(url.getPort());
+                }
+                return new URL(normalized.append(url.getPath().replaceAll("/+$", "")).toString());
             } catch (MalformedURLException e) {
                 throw new RuntimeException(e);
             }
@@ -60,6 +163,19 @@ public class Forge {
         }
     }
 
+    //We couldn't get an answer from the forge, or didn't even try because its circuit breaker is open
+    public static class Unavailable extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public Unavailable(String message) {
+            super(message);
+        }
+
+        public Unavailable(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
     public static class ModuleNotFound extends Exception {
         public ModuleNotFound(String message) {
             super(message);
@@ -70,21 +186,85 @@ public class Forge {
         }
     }
 
+    private interface ResponseReader<T> {
+        T read(InputStream content, Charset charset) throws IOException;
+    }
+
+    private static final Log LOG = Log.getLogFor(Forge.class);
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final String ROOT_ENDPOINT = "/";
+    private static final int STATUS_CODE_METHOD_NOT_ALLOWED = 405;
+    //Thread safe, and sharing it lets Jackson recycle its buffers and symbol tables between responses
+    private static final JsonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
+    private static final String USER_AGENT = "go-puppet-forge-poller";
+    //Stops us following a forge that keeps sending us to another page forever
+    private static final int MAX_RELEASE_PAGES = 1000;
+
+    //Without credentials, so it's safe to use in logs and metrics
     private final URL baseUrl;
-    private final HttpTransport httpTransport;
+    //Only added to the URLs we send requests to
+    private final String userInfo;
+    //Tells apart forges whose answers can't be shared: same URL but different credentials, API, or release order
+    private final String key;
+    private final ForgeApi api;
+    private final ReleaseOrder releaseOrder;
+    private final HttpRequestFactory requestFactory;
+    private final ValidatorCache validatorCache;
+    private final ReleaseCache releaseCache;
+    private final InFlightRequests inFlightRequests;
+    private final BackgroundRefresher backgroundRefresher;
+    private final PluginMetrics metrics;
+    private final Timeouts timeouts;
+    private final CircuitBreakers circuitBreakers;
+    private final PingCache pingCache;
+    private final long cacheTtlMillis;
+    //How long after cached releases expire we can keep using them while we refresh them, or if the forge is down
+    private final long maxStaleMillis;
 
     public Forge(URL baseUrl, HttpTransport httpTransport) {
-        this.baseUrl = baseUrl;
-        this.httpTransport = httpTransport;
+        this(baseUrl, ForgeApi.V1, httpTransport);
+    }
+
+    public Forge(URL baseUrl, ForgeApi api, HttpTransport httpTransport) {
+        this(baseUrl, api, ReleaseOrder.UNORDERED, httpTransport, new ValidatorCache(), new ReleaseCache(), new InFlightRequests(), new BackgroundRefresher(), new PluginMetrics(), Timeouts.defaults(), new CircuitBreakers(), new PingCache(), 0, 0);
+    }
+
+    public Forge(URL baseUrl, ForgeApi api, ReleaseOrder releaseOrder, HttpTransport httpTransport, ValidatorCache validatorCache, ReleaseCache releaseCache, InFlightRequests inFlightRequests, BackgroundRefresher backgroundRefresher, PluginMetrics metrics, Timeouts timeouts, CircuitBreakers circuitBreakers, PingCache pingCache, long cacheTtlMillis, long maxStaleMillis) {
+        this.baseUrl = withoutUserInfo(baseUrl);
+        this.userInfo = baseUrl.getUserInfo();
+        this.api = api;
+        this.releaseOrder = releaseOrder;
+        this.key = key(this.baseUrl, userInfo, api, releaseOrder);
+        this.validatorCache = validatorCache;
+        this.releaseCache = releaseCache;
+        this.inFlightRequests = inFlightRequests;
+        this.backgroundRefresher = backgroundRefresher;
+        this.metrics = metrics;
+        this.timeouts = timeouts;
+        this.circuitBreakers = circuitBreakers;
+        this.pingCache = pingCache;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+        //Shared by every request to the forge, from any thread
+        this.requestFactory = httpTransport.createRequestFactory(new HttpRequestInitializer() {
+            @Override
+            public void initialize(HttpRequest request) {
+                prepare(request);
+            }
+        });
     }
 
     public URL getBaseUrl() {
         return baseUrl;
     }
 
+    public String getKey() {
+        return key;
+    }
+
     public void ping() throws PingFailure {
         try {
-            ping(getBaseUrl());
+            ping(getBaseUrl(), ROOT_ENDPOINT);
         } catch (PingFailure e) {
             throw new PingFailure(String.format("Failed to connect to forge at %s", getBaseUrl()), e);
         }
@@ -92,83 +272,486 @@ public class Forge {
 
     public void ping(ModuleSpec module) throws PingFailure {
         try {
-            ping(moduleUrl(module));
+            ping(url(api.modulePath(module)), api.getModuleEndpoint());
         } catch (PingFailure e) {
             throw new PingFailure(String.format("Failed to query for module %s", module.getName()), e);
         }
     }
 
-    public ModuleVersion getLatestVersion(ModuleSpec module) throws ModuleNotFound {
-        SortedSet<Version> versions = getAllVersions(module);
+    public ModuleVersion getLatestVersion(ModuleSpec module) throws ModuleNotFound, Unavailable {
+        ReleasePage releases = getReleases(module);
+        ModuleRelease latestReleaseInRange = latestInRange(releases.getReleases(), module);
+        //If we stopped reading releases early for another module spec, we might not have got to this one's range yet
+        while (latestReleaseInRange == null && releases.getNext() != null) {
+            releases = fetchAndCacheReleases(module, releases, cacheTtlMillis);
+            latestReleaseInRange = latestInRange(releases.getReleases(), module);
+        }
+        return toModuleVersion(module, latestReleaseInRange);
+    }
 
-        try {
-            SortedSet<Version> versionsInRange = versions.tailSet(module.getLowerVersionBound()).headSet(module.getUpperVersionBound());
-            Version latestReleaseInRange = versionsInRange.last();
+    public Map<ModuleSpec, ModuleVersion> getLatestVersions(Collection<ModuleSpec> modules) {
+        return getLatestVersions(modules, Integer.getInteger(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+    }
 
-            return getModuleVersion(module, latestReleaseInRange);
-        } catch (NoSuchElementException e) {
-            throw new ModuleNotFound(String.format("No module versions found satisfying '%s'", module), e);
+    //Looks up as many modules per request as the forge allows, and caches their releases for later lookups. Modules
+    //that can't be found are left out.
+    public Map<ModuleSpec, ModuleVersion> getLatestVersions(Collection<ModuleSpec> modules, int batchSize) {
+        Map<String, ReleaseIndex> releasesByModule = fetchAndCacheBatches(uniqueModules(modules, true), batchSize, cacheTtlMillis);
+        Map<ModuleSpec, ModuleVersion> latestVersions = new LinkedHashMap<>();
+        for (ModuleSpec module : modules) {
+            try {
+                ReleaseIndex releases = releasesByModule.get(module.getName());
+                latestVersions.put(module, releases == null ? getLatestVersion(module) : toModuleVersion(module, latestInRange(releases, module)));
+            } catch (ModuleNotFound e) {
+                LOG.info("Module %s not found in forge %s: %s", module, baseUrl, e);
+            } catch (Unavailable e) {
+                LOG.info("Couldn't look up module %s: %s", module, e);
+            }
         }
+        return latestVersions;
     }
 
-    private ModuleVersion getModuleVersion(ModuleSpec module, Version version) throws ModuleNotFound {
+    //Refreshes the cached releases of the modules, even if they haven't expired yet, and keeps them for the given time
+    //(or this forge's cache TTL, if that's longer), so they last until the next prefetch. Does nothing if this forge
+    //doesn't cache releases.
+    public void prefetch(Collection<ModuleSpec> modules, long ttlMillis) {
+        if (cacheTtlMillis <= 0) {
+            return;
+        }
+        long prefetchTtlMillis = Math.max(ttlMillis, cacheTtlMillis);
+        List<ModuleSpec> uniqueModules = uniqueModules(modules, false);
+        Map<String, ReleaseIndex> releasesByModule = fetchAndCacheBatches(uniqueModules, Integer.getInteger(BATCH_SIZE, DEFAULT_BATCH_SIZE), prefetchTtlMillis);
+        for (ModuleSpec module : uniqueModules) {
+            if (!releasesByModule.containsKey(module.getName())) {
+                try {
+                    fetchAndCacheReleases(module, null, prefetchTtlMillis);
+                } catch (ModuleNotFound | Unavailable e) {
+                    LOG.info("Failed to prefetch releases of module %s from forge %s: %s", module, baseUrl, e);
+                }
+            }
+        }
+    }
+
+    //One of each module, sorted by name so the same modules are always requested with the same URL
+    private List<ModuleSpec> uniqueModules(Collection<ModuleSpec> modules, boolean skipCachedModules) {
+        Map<String, ModuleSpec> uniqueModules = new TreeMap<>();
+        for (ModuleSpec module : modules) {
+            if (!skipCachedModules || cacheTtlMillis <= 0 || releaseCache.get(key, module.getName()) == null) {
+                uniqueModules.put(module.getName(), module);
+            }
+        }
+        return new ArrayList<>(uniqueModules.values());
+    }
+
+    private Map<String, ReleaseIndex> fetchAndCacheBatches(List<ModuleSpec> modules, int batchSize, long ttlMillis) {
+        Map<String, ReleaseIndex> releasesByModule = new HashMap<>();
+        ForgeApi.ModuleBatches batches = api.getModuleBatches();
+        int modulesPerRequest = batches == null ? 1 : Math.min(batchSize, batches.getMaxBatchSize());
+        if (modulesPerRequest <= 1) {
+            return releasesByModule;
+        }
+        for (int start = 0; start < modules.size(); start += modulesPerRequest) {
+            List<ModuleSpec> batch = modules.subList(start, Math.min(start + modulesPerRequest, modules.size()));
+            try {
+                Map<String, ReleaseIndex> releases = fetchModules(batches, batch);
+                releasesByModule.putAll(releases);
+                if (ttlMillis > 0) {
+                    for (Map.Entry<String, ReleaseIndex> moduleReleases : releases.entrySet()) {
+                        releaseCache.put(key, moduleReleases.getKey(), new ReleasePage(moduleReleases.getValue(), null), ttlMillis, maxStaleMillis);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.info("Failed to look up %d modules in forge %s at once, so looking them up one by one: %s", batch.size(), baseUrl, e);
+            }
+        }
+        return releasesByModule;
+    }
+
+    private ModuleVersion toModuleVersion(ModuleSpec module, ModuleRelease latestReleaseInRange) throws ModuleNotFound {
+        if (latestReleaseInRange == null) {
+            throw new ModuleNotFound(String.format("No module versions found satisfying '%s'", module));
+        }
+        return ModuleVersion.with(module, latestReleaseInRange.getVersion(), url(latestReleaseInRange.getFile()));
+    }
+
+    private ModuleRelease latestInRange(ReleaseIndex releases, ModuleSpec module) {
+        return releases.latestBetween(module.getLowerVersionBound(), module.getUpperVersionBound());
+    }
+
+    private ReleasePage getReleases(ModuleSpec module) throws ModuleNotFound, Unavailable {
+        if (cacheTtlMillis > 0) {
+            ReleasePage cachedReleases = releaseCache.get(key, module.getName());
+            if (cachedReleases != null) {
+                return cachedReleases;
+            }
+            ReleasePage staleReleases = releaseCache.getStale(key, module.getName());
+            if (staleReleases != null) {
+                refreshInBackground(module);
+                return staleReleases;
+            }
+        }
+        return fetchAndCacheReleases(module, null, cacheTtlMillis);
+    }
+
+    //Until it works, we keep using the stale releases (until they're too stale)
+    private void refreshInBackground(final ModuleSpec module) {
+        backgroundRefresher.refresh(key + " " + module.getName(), new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    fetchAndCacheReleases(module, null, cacheTtlMillis);
+                } catch (ModuleNotFound | Unavailable e) {
+                    LOG.info("Failed to refresh releases of module %s from forge %s: %s", module.getName(), baseUrl, e);
+                }
+            }
+        });
+    }
+
+    private ReleasePage fetchAndCacheReleases(final ModuleSpec module, final ReleasePage releasesSoFar, final long ttlMillis) throws ModuleNotFound, Unavailable {
         try {
-            ModuleReleases allReleases = get(releasesUrl(module)).parseAs(ModuleReleases.class);
-            Map<Version, ModuleRelease> moduleReleases = allReleases.getReleases(module.getName());
-            ModuleRelease moduleRelease = moduleReleases.get(version);
-            return ModuleVersion.with(module, version, url(moduleRelease.getFile()));
-        } catch (IOException e) {
-            throw new ModuleNotFound(String.format("Failed to look up release information for module '%s'", module), e);
+            return inFlightRequests.execute(key + " " + module.getName(), new Callable<ReleasePage>() {
+                @Override
+                public ReleasePage call() throws ModuleNotFound, Unavailable {
+                    ReleasePage releases = fetchReleases(module, releasesSoFar);
+                    if (ttlMillis > 0) {
+                        releaseCache.put(key, module.getName(), releases, ttlMillis, maxStaleMillis);
+                    }
+                    return releases;
+                }
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Unavailable) {
+                throw (Unavailable) e.getCause();
+            }
+            throw rethrow(e.getCause(), ModuleNotFound.class);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModuleNotFound(String.format("Interrupted while looking up releases of module '%s'", module), e);
         }
     }
 
-    private SortedSet<Version> getAllVersions(ModuleSpec module) throws ModuleNotFound {
+    //Returns all of the module's releases, unless the forge lists them newest first. Then it stops after the page with
+    //the latest release in the module's range, and the returned page links to where to carry on from.
+    private ReleasePage fetchReleases(final ModuleSpec module, ReleasePage releasesSoFar) throws ModuleNotFound, Unavailable {
+        ResponseReader<ReleasePage> pageReader = new ResponseReader<ReleasePage>() {
+            @Override
+            public ReleasePage read(InputStream content, Charset charset) throws IOException {
+                JsonParser parser = JSON_FACTORY.createJsonParser(content, charset);
+                try {
+                    return api.readReleases(parser, module);
+                } finally {
+                    parser.close();
+                }
+            }
+        };
         try {
-            HttpResponse response = get(moduleUrl(module));
-            ModuleMetadata moduleMetadata = response.parseAs(ModuleMetadata.class);
-            return new TreeSet<>(moduleMetadata.getVersions());
+            ReleasePage page = releasesSoFar == null ? get(url(api.releasesPath(module, releaseOrder)), api.getReleasesEndpoint(), pageReader) : releasesSoFar;
+            boolean newestFirst = releaseOrder == ReleaseOrder.NEWEST_FIRST;
+            if (page.getNext() == null || (newestFirst && latestInRange(page.getReleases(), module) != null)) {
+                return page;
+            }
+            ReleaseIndex.Builder releases = ReleaseIndex.builder().addAll(page.getReleases());
+            Version oldestSoFar = oldest(page.getReleases(), null);
+            for (int pages = 1; page.getNext() != null; pages++) {
+                if (pages == MAX_RELEASE_PAGES) {
+                    throw new IOException(String.format("Gave up after reading %d pages of releases", pages));
+                }
+                page = get(url(page.getNext()), api.getReleasesEndpoint(), pageReader);
+                releases.addAll(page.getReleases());
+                if (newestFirst && page.getReleases().size() > 0) {
+                    if (oldestSoFar != null && newest(page.getReleases()).compareTo(oldestSoFar) > 0) {
+                        LOG.info("Forge %s doesn't list releases of %s newest first, so reading all of them", baseUrl, module.getName());
+                        newestFirst = false;
+                    } else if (latestInRange(page.getReleases(), module) != null) {
+                        return new ReleasePage(releases.build(), page.getNext());
+                    }
+                    oldestSoFar = oldest(page.getReleases(), oldestSoFar);
+                }
+            }
+            return new ReleasePage(releases.build(), null);
+        } catch (Unavailable e) {
+            throw e;
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_FOUND) {
+                throw new ModuleNotFound(String.format("Failed to look up releases of module '%s'", module), e);
+            }
+            throw new Unavailable(String.format("Failed to look up releases of module '%s' in forge %s", module, baseUrl), e);
         } catch (IOException e) {
-            throw new ModuleNotFound(String.format("Failed to list versions of module '%s'", module), e);
+            //The forge is down, or isn't answering properly, so the module might well be there
+            throw new Unavailable(String.format("Failed to look up releases of module '%s' in forge %s", module, baseUrl), e);
         }
     }
 
-    private void ping(URL url) throws PingFailure {
+    //Not revalidated: the same batch of modules is rarely requested twice, so remembering responses would only use memory
+    private Map<String, ReleaseIndex> fetchModules(final ForgeApi.ModuleBatches batches, final List<ModuleSpec> modules) throws IOException {
+        return get(url(batches.modulesPath(modules)), batches.getModulesEndpoint(), false, new ResponseReader<Map<String, ReleaseIndex>>() {
+            @Override
+            public Map<String, ReleaseIndex> read(InputStream content, Charset charset) throws IOException {
+                JsonParser parser = JSON_FACTORY.createJsonParser(content, charset);
+                try {
+                    return batches.readModules(parser, modules);
+                } finally {
+                    parser.close();
+                }
+            }
+        });
+    }
+
+    private static Version oldest(ReleaseIndex releases, Version oldestSoFar) {
+        if (releases.size() == 0) {
+            return oldestSoFar;
+        }
+        Version oldest = releases.versionAt(0);
+        return oldestSoFar == null || oldest.compareTo(oldestSoFar) < 0 ? oldest : oldestSoFar;
+    }
+
+    private static Version newest(ReleaseIndex releases) {
+        return releases.versionAt(releases.size() - 1);
+    }
+
+    private static <E extends Exception> E rethrow(Throwable cause, Class<E> expectedType) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else {
+            return expectedType.cast(cause);
+        }
+    }
+
+    //Asks for just the headers, or just the first byte if the forge doesn't answer HEAD requests
+    private void ping(URL url, String endpoint) throws PingFailure {
+        if (pingCache.recentlyAnswered(key + " " + url)) {
+            return;
+        }
         try {
-            get(url);
+            checkCircuit();
+            if (!pingWith(buildHeadRequest(url), endpoint)) {
+                HttpRequest request = buildGetRequest(url);
+                request.getHeaders().setRange("bytes=0-0");
+                pingWith(request, endpoint);
+            }
+            pingCache.answered(key + " " + url);
         } catch (IOException e) {
             throw new PingFailure(String.format("Failed to connect to '%s'", url), e);
         }
     }
 
-    private URL moduleUrl(ModuleSpec moduleSpec) {
-        return url("/%s.json", moduleSpec.getName());
-    }
-
-    private URL releasesUrl(ModuleSpec moduleSpec) {
-        return url("/api/v1/releases.json?module=%s", moduleSpec.getName());
+    //False if the forge doesn't allow the request's method
+    private boolean pingWith(HttpRequest request, String endpoint) throws IOException {
+        RequestTimer timer = metrics.startRequest(baseUrl.toString(), endpoint);
+        try {
+            request.setThrowExceptionOnExecuteError(false);
+            HttpResponse response = execute(request, timer);
+            boolean readFailed = true;
+            try {
+                if (response.getStatusCode() == STATUS_CODE_METHOD_NOT_ALLOWED && HttpMethods.HEAD.equals(request.getRequestMethod())) {
+                    response.ignore();
+                    readFailed = false;
+                    return false;
+                }
+                if (!response.isSuccessStatusCode()) {
+                    readFailed = false;
+                    try {
+                        throw new HttpResponseException(response);
+                    } finally {
+                        response.disconnect();
+                    }
+                }
+                response.ignore();
+                readFailed = false;
+                return true;
+            } finally {
+                finished(response.getStatusCode(), readFailed);
+            }
+        } finally {
+            timer.finish();
+        }
     }
 
-    private URL url(String pathFormat, Object... args) {
+    private URL url(String path) {
         try {
-            return new URL(getBaseUrl(), Paths.get(getBaseUrl().getPath(), String.format(pathFormat, args)).toString());
+            return new URL(getBaseUrl(), Paths.get(getBaseUrl().getPath(), path).toString());
         } catch (MalformedURLException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private HttpResponse get(URL url) throws IOException {
-        HttpRequestFactory requestFactory = httpTransport.createRequestFactory();
-        HttpRequest request = requestFactory.buildGetRequest(new GenericUrl(url));
-        request.setParser(getParser());
-        return request.execute();
+    private <T> T get(URL url, String endpoint, ResponseReader<T> reader) throws IOException {
+        return get(url, endpoint, true, reader);
+    }
+
+    private <T> T get(URL url, String endpoint, boolean revalidate, ResponseReader<T> reader) throws IOException {
+        checkCircuit();
+        RequestTimer timer = metrics.startRequest(baseUrl.toString(), endpoint);
+        try {
+            return get(url, revalidate, reader, timer);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    //Revalidated responses are kept with their validators, so next time the forge can tell us they haven't changed
+    private <T> T get(URL url, boolean revalidate, ResponseReader<T> reader, RequestTimer timer) throws IOException {
+        ValidatorCache.Entry cached = revalidate ? validatorCache.get(key + " " + url) : null;
+        HttpRequest request = buildGetRequest(url);
+        if (cached != null) {
+            request.getHeaders().setIfNoneMatch(cached.getEtag());
+            request.getHeaders().setIfModifiedSince(cached.getLastModified());
+        }
+        request.setThrowExceptionOnExecuteError(false);
+
+        HttpResponse response = execute(request, timer);
+        boolean readFailed = true;
+        try {
+            if (cached != null && response.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED) {
+                response.ignore();
+                readFailed = false;
+                return cached.getContent();
+            }
+            if (!response.isSuccessStatusCode()) {
+                readFailed = false;
+                try {
+                    throw new HttpResponseException(response);
+                } finally {
+                    response.disconnect();
+                }
+            }
+
+            T content = reader.read(new CountingInputStream(decompressed(response), timer), response.getContentCharset());
+            readFailed = false;
+            if (revalidate) {
+                validatorCache.put(key + " " + url, response.getHeaders().getETag(), response.getHeaders().getLastModified(), content);
+            }
+            return content;
+        } finally {
+            finished(response.getStatusCode(), readFailed);
+        }
+    }
+
+    private void checkCircuit() throws Unavailable {
+        CircuitBreaker circuitBreaker = circuitBreakers.forForge(key);
+        if (!circuitBreaker.allowRequest()) {
+            throw new Unavailable(String.format("Forge %s keeps failing, so not trying it again for up to %d seconds", baseUrl, TimeUnit.MILLISECONDS.toSeconds(circuitBreaker.getCoolDownMillis())));
+        }
+    }
+
+    private static InputStream decompressed(HttpResponse response) throws IOException {
+        InputStream content = response.getContent();
+        String contentEncoding = response.getContentEncoding();
+        if (content != null && contentEncoding != null && contentEncoding.trim().equalsIgnoreCase("deflate")) {
+            return DeflatedContent.inflate(content);
+        }
+        return content;
+    }
+
+    //Not getting a response counts against the forge's circuit breaker straight away. A response counts once we've
+    //finished reading it (see finished()).
+    private HttpResponse execute(HttpRequest request, RequestTimer timer) throws IOException {
+        long start = System.nanoTime();
+        boolean forgeFailed = true;
+        try {
+            HttpResponse response = request.execute();
+            timeouts.responseReceived(baseUrl.toString(), System.nanoTime() - start);
+            timer.responseReceived(response.getStatusCode());
+            forgeFailed = false;
+            return response;
+        } catch (HttpResponseException e) {
+            timeouts.responseReceived(baseUrl.toString(), System.nanoTime() - start);
+            timer.responseReceived(e.getStatusCode());
+            forgeFailed = false;
+            finished(e.getStatusCode(), false);
+            throw e;
+        } catch (SocketTimeoutException e) {
+            timeouts.responseReceived(baseUrl.toString(), System.nanoTime() - start);
+            throw e;
+        } finally {
+            if (forgeFailed) {
+                circuitBreakers.forForge(key).failed();
+            }
+        }
+    }
+
+    //Server errors, and responses we couldn't read, count against the forge's circuit breaker. Client errors (like
+    //missing modules) don't.
+    private void finished(int statusCode, boolean readFailed) {
+        CircuitBreaker circuitBreaker = circuitBreakers.forForge(key);
+        if (readFailed || isServerError(statusCode)) {
+            circuitBreaker.failed();
+        } else {
+            circuitBreaker.succeeded();
+        }
     }
 
-    private JsonObjectParser getParser() {
-        return new JsonObjectParser(new JacksonFactory());
+    private static boolean isServerError(int statusCode) {
+        return statusCode >= 500;
+    }
+
+    private void prepare(HttpRequest request) {
+        request.setConnectTimeout(timeouts.getConnectTimeoutMillis());
+        request.setReadTimeout(timeouts.getReadTimeoutMillis(baseUrl.toString()));
+        request.getHeaders().setUserAgent(USER_AGENT);
+        //The HTTP client inflates gzipped responses itself, and we inflate deflated ones
+        request.getHeaders().setAcceptEncoding("gzip, deflate");
+    }
+
+    private HttpRequest buildGetRequest(URL url) throws IOException {
+        return requestFactory.buildGetRequest(requestUrl(url));
+    }
+
+    private HttpRequest buildHeadRequest(URL url) throws IOException {
+        return requestFactory.buildHeadRequest(requestUrl(url));
+    }
+
+    private GenericUrl requestUrl(URL url) {
+        GenericUrl requestUrl = new GenericUrl(url);
+        requestUrl.setUserInfo(userInfo);
+        return requestUrl;
+    }
+
+    //A digest of the credentials rather than the credentials themselves, since keys end up on disk
+    private static String key(URL baseUrl, String userInfo, ForgeApi api, ReleaseOrder releaseOrder) {
+        String key = baseUrl + " " + api + " " + releaseOrder;
+        return userInfo == null ? key : key + " " + Digests.hex("SHA-256", userInfo).substring(0, 16);
+    }
+
+    private static URL withoutUserInfo(URL url) {
+        try {
+            return new URL(url.getProtocol(), url.getHost(), url.getPort(), url.getFile());
+        } catch (MalformedURLException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
     public String toString() {
         return baseUrl.toString();
     }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final RequestTimer timer;
+
+        CountingInputStream(InputStream in, RequestTimer timer) {
+            super(in);
+            this.timer = timer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                timer.bytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                timer.bytesRead(read);
+            }
+            return read;
+        }
+    }
 }
@@ -0,0 +1,177 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import com.google.api.client.json.JsonParser;
+import io.github.drrb.goforgepoller.forge.api.ModuleReleases;
+import io.github.drrb.goforgepoller.forge.api.PagedModules;
+import io.github.drrb.goforgepoller.forge.api.PagedReleases;
+import io.github.drrb.goforgepoller.forge.api.ReleasePage;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public enum ForgeApi {
+    V1("1", "/<module>.json", "/api/v1/releases.json") {
+        @Override
+        String modulePath(ModuleSpec module) {
+            return String.format("/%s.json", module.getName());
+        }
+
+        @Override
+        String releasesPath(ModuleSpec module, ReleaseOrder order) {
+            return String.format("/api/v1/releases.json?module=%s", module.getName());
+        }
+
+        @Override
+        ReleasePage readReleases(JsonParser parser, ModuleSpec module) throws IOException {
+            return new ReleasePage(ModuleReleases.read(parser, module.getName()), null);
+        }
+    },
+    V3("3", "/v3/modules/<slug>", "/v3/releases") {
+        @Override
+        String modulePath(ModuleSpec module) {
+            return String.format("/v3/modules/%s", slug(module));
+        }
+
+        @Override
+        String releasesPath(ModuleSpec module, ReleaseOrder order) {
+            String path = String.format("/v3/releases?module=%s&limit=%d&exclude_fields=%s", slug(module), V3_PAGE_SIZE, V3_EXCLUDED_FIELDS);
+            //Asking the forge to sort them means we can rely on the order, rather than on how it happens to list them
+            return order == ReleaseOrder.NEWEST_FIRST ? path + "&sort_by=version" : path;
+        }
+
+        @Override
+        ReleasePage readReleases(JsonParser parser, ModuleSpec module) throws IOException {
+            return PagedReleases.read(parser);
+        }
+
+        @Override
+        ModuleBatches getModuleBatches() {
+            return V3_MODULE_BATCHES;
+        }
+    };
+
+    //The largest page the v3 forge will return
+    private static final int V3_PAGE_SIZE = 100;
+    //We only need the version and file of each release, and these are by far the biggest fields
+    private static final String V3_EXCLUDED_FIELDS = "readme%20changelog%20license%20reference%20metadata%20tasks%20plans";
+    private static final ModuleBatches V3_MODULE_BATCHES = new V3ModuleBatches();
+
+    private final String version;
+    private final String moduleEndpoint;
+    private final String releasesEndpoint;
+
+    ForgeApi(String version, String moduleEndpoint, String releasesEndpoint) {
+        this.version = version;
+        this.moduleEndpoint = moduleEndpoint;
+        this.releasesEndpoint = releasesEndpoint;
+    }
+
+    public static ForgeApi forVersion(String version) {
+        if (version == null || version.trim().isEmpty()) {
+            return V1;
+        }
+        for (ForgeApi api : values()) {
+            if (api.version.equals(version.trim())) {
+                return api;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unsupported forge API version '%s'", version));
+    }
+
+    public static boolean isSupported(String version) {
+        try {
+            forVersion(version);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    String getModuleEndpoint() {
+        return moduleEndpoint;
+    }
+
+    String getReleasesEndpoint() {
+        return releasesEndpoint;
+    }
+
+    abstract String modulePath(ModuleSpec module);
+
+    abstract String releasesPath(ModuleSpec module, ReleaseOrder order);
+
+    abstract ReleasePage readReleases(JsonParser parser, ModuleSpec module) throws IOException;
+
+    //How to look up several modules in one request, or null if this API can't
+    ModuleBatches getModuleBatches() {
+        return null;
+    }
+
+    private static String slug(ModuleSpec module) {
+        return module.getName().replace('/', '-');
+    }
+
+    interface ModuleBatches {
+        //How many modules we can look up in one request
+        int getMaxBatchSize();
+
+        String getModulesEndpoint();
+
+        String modulesPath(List<ModuleSpec> modules);
+
+        Map<String, ReleaseIndex> readModules(JsonParser parser, List<ModuleSpec> modules) throws IOException;
+    }
+
+    //Modules include a short listing of all of their releases, so we can look up a page of them at once
+    private static class V3ModuleBatches implements ModuleBatches {
+        @Override
+        public int getMaxBatchSize() {
+            return V3_PAGE_SIZE;
+        }
+
+        @Override
+        public String getModulesEndpoint() {
+            return "/v3/modules";
+        }
+
+        @Override
+        public String modulesPath(List<ModuleSpec> modules) {
+            StringBuilder slugs = new StringBuilder();
+            for (ModuleSpec module : modules) {
+                slugs.append(slugs.length() == 0 ? "" : ",").append(slug(module));
+            }
+            return String.format("/v3/modules?slugs=%s&limit=%d&exclude_fields=%s", slugs, modules.size(), V3_EXCLUDED_FIELDS);
+        }
+
+        @Override
+        public Map<String, ReleaseIndex> readModules(JsonParser parser, List<ModuleSpec> modules) throws IOException {
+            Map<String, ReleaseIndex> releasesBySlug = PagedModules.read(parser);
+            Map<String, ReleaseIndex> releasesByName = new HashMap<>();
+            for (ModuleSpec module : modules) {
+                ReleaseIndex releases = releasesBySlug.get(slug(module));
+                if (releases != null) {
+                    releasesByName.put(module.getName(), releases);
+                }
+            }
+            return releasesByName;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import javax.inject.Singleton;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+@Singleton
+public class InFlightRequests {
+
+    private final ConcurrentMap<String, Future<?>> requests = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Callable<T> request) throws ExecutionException, InterruptedException {
+        FutureTask<T> newRequest = new FutureTask<>(request);
+        Future<T> existingRequest = (Future<T>) requests.putIfAbsent(key, newRequest);
+        if (existingRequest != null) {
+            return existingRequest.get();
+        }
+
+        try {
+            newRequest.run();
+        } finally {
+            requests.remove(key, newRequest);
+        }
+        return newRequest.get();
+    }
+}
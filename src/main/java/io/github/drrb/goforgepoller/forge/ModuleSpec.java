@@ -20,6 +20,8 @@ package io.github.drrb.goforgepoller.forge;
 import com.thoughtworks.go.plugin.api.material.packagerepository.PackageConfiguration;
 import io.github.drrb.goforgepoller.util.SaferConfiguration;
 
+import java.util.Objects;
+
 import static io.github.drrb.goforgepoller.ForgePollerPluginConfig.*;
 
 public class ModuleSpec {
@@ -79,6 +81,23 @@ public class ModuleSpec {
         return upperVersionBound;
     }
 
+    @Override
+    public boolean equals(Object other) {
+        if (other == null) return false;
+        if (other == this) return true;
+        if (other.getClass() != getClass()) return false;
+
+        ModuleSpec that = (ModuleSpec) other;
+        return Objects.equals(this.name, that.name)
+                && Objects.equals(this.lowerVersionBound, that.lowerVersionBound)
+                && Objects.equals(this.upperVersionBound, that.upperVersionBound);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, lowerVersionBound, upperVersionBound);
+    }
+
     @Override
     public String toString() {
         StringBuilder string = new StringBuilder(name);
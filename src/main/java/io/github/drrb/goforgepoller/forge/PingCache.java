@@ -0,0 +1,66 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Clock;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Remembers which forges and modules answered a ping recently, so checking the same forge or module again while someone edits its
+//configuration doesn't send another request
+@Singleton
+public class PingCache {
+    public static final String TTL_SECONDS = "goforgepoller.ping.cacheSeconds";
+
+    private static final int DEFAULT_TTL_SECONDS = 10;
+    private static final int MAX_URLS = 1000;
+
+    private final Clock clock;
+    private final long ttlMillis;
+    private final Map<String, Long> expiryTimes = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_URLS;
+        }
+    };
+
+    @Inject
+    public PingCache() {
+        this(Clock.SYSTEM, TimeUnit.SECONDS.toMillis(Integer.getInteger(TTL_SECONDS, DEFAULT_TTL_SECONDS)));
+    }
+
+    public PingCache(Clock clock, long ttlMillis) {
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized boolean recentlyAnswered(String key) {
+        Long expiryTime = expiryTimes.get(key);
+        return expiryTime != null && expiryTime > clock.currentTimeMillis();
+    }
+
+    public synchronized void answered(String key) {
+        if (ttlMillis > 0) {
+            expiryTimes.put(key, clock.currentTimeMillis() + ttlMillis);
+        }
+    }
+}
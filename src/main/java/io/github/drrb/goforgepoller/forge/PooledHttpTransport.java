@@ -0,0 +1,171 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import io.github.drrb.goforgepoller.metrics.RequestTimer;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.conn.ProxySelectorRoutePlanner;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProxySelector;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+public class PooledHttpTransport {
+    public static final String MAX_CONNECTIONS = "goforgepoller.http.maxConnections";
+    public static final String MAX_CONNECTIONS_PER_HOST = "goforgepoller.http.maxConnectionsPerHost";
+    public static final String IDLE_TIMEOUT_SECONDS = "goforgepoller.http.idleTimeoutSeconds";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 200;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+    private static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 30;
+
+    private static final ScheduledExecutorService idleConnectionEvictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "forge-idle-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private PooledHttpTransport() {
+    }
+
+    public static ApacheHttpTransport create() {
+        return create(
+                Integer.getInteger(MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS),
+                Integer.getInteger(MAX_CONNECTIONS_PER_HOST, DEFAULT_MAX_CONNECTIONS_PER_HOST),
+                Integer.getInteger(IDLE_TIMEOUT_SECONDS, DEFAULT_IDLE_TIMEOUT_SECONDS)
+        );
+    }
+
+    //Built like ApacheHttpTransport.Builder builds its client, but with a connection manager that we can stop evicting
+    //idle connections from when the transport shuts down
+    public static ApacheHttpTransport create(int maxConnections, int maxConnectionsPerHost, int idleTimeoutSeconds) {
+        HttpParams params = new ApacheHttpTransport.Builder().getHttpParams();
+        //Pooled connections can be closed by the server while idle, so check them before reuse
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        ConnManagerParams.setMaxTotalConnections(params, maxConnections);
+        ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(maxConnectionsPerHost));
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
+        schemes.register(new Scheme("https", SSLSocketFactory.getSocketFactory(), 443));
+        EvictingConnectionManager connectionManager = new EvictingConnectionManager(params, schemes);
+        DefaultHttpClient httpClient = new DefaultHttpClient(connectionManager, params);
+        httpClient.setHttpRequestRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+        httpClient.setRoutePlanner(new ProxySelectorRoutePlanner(schemes, ProxySelector.getDefault()));
+        //Request interceptors run once the connection is open, so this splits connecting from waiting for the forge
+        httpClient.addRequestInterceptor(new HttpRequestInterceptor() {
+            @Override
+            public void process(HttpRequest request, HttpContext context) {
+                RequestTimer.connectionEstablished();
+            }
+        });
+        //Counts response bodies as they come off the connection, before the HTTP client decompresses them
+        httpClient.addResponseInterceptor(new HttpResponseInterceptor() {
+            @Override
+            public void process(HttpResponse response, HttpContext context) {
+                if (response.getEntity() != null) {
+                    response.setEntity(new CountingEntity(response.getEntity()));
+                }
+            }
+        });
+        connectionManager.evictIdleConnections(idleTimeoutSeconds);
+        return new ApacheHttpTransport(httpClient);
+    }
+
+    private static class CountingEntity extends HttpEntityWrapper {
+        CountingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b != -1) {
+                        RequestTimer.bytesReceived(1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = super.read(buffer, offset, length);
+                    if (read > 0) {
+                        RequestTimer.bytesReceived(read);
+                    }
+                    return read;
+                }
+            };
+        }
+    }
+
+    private static class EvictingConnectionManager extends ThreadSafeClientConnManager {
+        private volatile ScheduledFuture<?> eviction;
+
+        EvictingConnectionManager(HttpParams params, SchemeRegistry schemes) {
+            super(params, schemes);
+        }
+
+        void evictIdleConnections(final int idleTimeoutSeconds) {
+            eviction = idleConnectionEvictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    closeExpiredConnections();
+                    closeIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS);
+                }
+            }, idleTimeoutSeconds, idleTimeoutSeconds, TimeUnit.SECONDS);
+        }
+
+        //Called by ApacheHttpTransport.shutdown()
+        @Override
+        public void shutdown() {
+            if (eviction != null) {
+                eviction.cancel(false);
+            }
+            super.shutdown();
+        }
+    }
+}
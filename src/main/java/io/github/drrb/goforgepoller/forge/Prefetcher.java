@@ -0,0 +1,169 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Clock;
+import io.github.drrb.goforgepoller.util.Log;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Keeps the releases of the modules Go polls cached, so that polls don't have to wait for the forge
+@Singleton
+public class Prefetcher {
+    public static final String INTERVAL_SECONDS = "goforgepoller.prefetch.intervalSeconds";
+
+    //Stop refreshing modules Go hasn't polled for this long (e.g. because their pipeline was deleted)
+    private static final long FORGET_AFTER_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "forge-prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static class PolledForge {
+        private volatile Forge forge;
+        private final ConcurrentMap<ModuleSpec, Long> lastPolled = new ConcurrentHashMap<>();
+    }
+
+    private final Log LOG = Log.getLogFor(Prefetcher.class);
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    private final Random random;
+    private final ConcurrentMap<String, PolledForge> forges = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Inject
+    public Prefetcher() {
+        this(TimeUnit.SECONDS.toMillis(Integer.getInteger(INTERVAL_SECONDS, 0)), refresher, Clock.SYSTEM, new Random());
+    }
+
+    public Prefetcher(long intervalMillis, ScheduledExecutorService scheduler, Clock clock, Random random) {
+        this.intervalMillis = intervalMillis;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.random = random;
+    }
+
+    public boolean isEnabled() {
+        return intervalMillis > 0;
+    }
+
+    public void polled(Forge forge, ModuleSpec module) {
+        if (!isEnabled()) {
+            return;
+        }
+        String forgeKey = forge.getKey();
+        PolledForge polledForge;
+        //If a refresh dropped the forge while we were adding to it, add the module again to the forge's new entry
+        do {
+            polledForge = forges.get(forgeKey);
+            if (polledForge == null) {
+                PolledForge newPolledForge = new PolledForge();
+                polledForge = forges.putIfAbsent(forgeKey, newPolledForge);
+                if (polledForge == null) {
+                    polledForge = newPolledForge;
+                }
+            }
+            polledForge.forge = forge;
+            polledForge.lastPolled.put(module, clock.currentTimeMillis());
+        } while (forges.get(forgeKey) != polledForge);
+        if (started.compareAndSet(false, true)) {
+            scheduleRefresh();
+        }
+    }
+
+    public void refresh() {
+        long start = System.nanoTime();
+        long forgetBefore = clock.currentTimeMillis() - FORGET_AFTER_MILLIS;
+        int moduleCount = 0;
+        for (Map.Entry<String, PolledForge> entry : forges.entrySet()) {
+            PolledForge polledForge = entry.getValue();
+            List<ModuleSpec> modules = new ArrayList<>();
+            for (Map.Entry<ModuleSpec, Long> module : polledForge.lastPolled.entrySet()) {
+                if (module.getValue() < forgetBefore) {
+                    polledForge.lastPolled.remove(module.getKey(), module.getValue());
+                } else {
+                    modules.add(module.getKey());
+                }
+            }
+            if (modules.isEmpty()) {
+                if (forges.remove(entry.getKey(), polledForge) && !polledForge.lastPolled.isEmpty()) {
+                    //A module was polled since we looked, so keep the forge after all
+                    keep(entry.getKey(), polledForge);
+                }
+                continue;
+            }
+            //Keep them until the next refresh has replaced them: it starts within an interval, and we give it the jitter
+            //window again to fetch them, so polls keep getting the old releases while it does
+            polledForge.forge.prefetch(modules, intervalMillis + maxJitterMillis());
+            moduleCount += modules.size();
+        }
+        LOG.debug("Prefetched releases of %s modules in %sms", moduleCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void keep(String forgeKey, PolledForge polledForge) {
+        PolledForge newPolledForge = forges.putIfAbsent(forgeKey, polledForge);
+        if (newPolledForge != null) {
+            for (Map.Entry<ModuleSpec, Long> module : polledForge.lastPolled.entrySet()) {
+                newPolledForge.lastPolled.putIfAbsent(module.getKey(), module.getValue());
+            }
+        }
+    }
+
+    private void scheduleRefresh() {
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    LOG.error("Failed to prefetch module releases", e);
+                } finally {
+                    scheduleRefresh();
+                }
+            }
+        }, nextDelayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    //Some time in the last quarter of the interval, so the refresh lands before the releases are due to expire, and
+    //plugins on different Go servers don't hit the forge at the same moment
+    private long nextDelayMillis() {
+        return intervalMillis - (long) (random.nextDouble() * maxJitterMillis());
+    }
+
+    private long maxJitterMillis() {
+        return intervalMillis / 4;
+    }
+}
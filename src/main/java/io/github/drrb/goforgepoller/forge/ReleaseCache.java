@@ -0,0 +1,94 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.forge.api.ReleasePage;
+import io.github.drrb.goforgepoller.util.Clock;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Singleton
+public class ReleaseCache {
+    public static final String MAX_MODULES = "goforgepoller.cache.maxModules";
+
+    static final int DEFAULT_MAX_MODULES = 1000;
+
+    private static class Entry {
+        private final ReleasePage releases;
+        private final long expiryTime;
+        private final long staleExpiryTime;
+
+        private Entry(ReleasePage releases, long expiryTime, long staleExpiryTime) {
+            this.releases = releases;
+            this.expiryTime = expiryTime;
+            this.staleExpiryTime = staleExpiryTime;
+        }
+    }
+
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+
+    @Inject
+    public ReleaseCache() {
+        this(Clock.SYSTEM, Integer.getInteger(MAX_MODULES, DEFAULT_MAX_MODULES));
+    }
+
+    public ReleaseCache(Clock clock, final int maxModules) {
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxModules;
+            }
+        };
+    }
+
+    public synchronized ReleasePage get(String forgeKey, String moduleName) {
+        Entry entry = entry(forgeKey, moduleName);
+        return entry == null || entry.expiryTime <= clock.currentTimeMillis() ? null : entry.releases;
+    }
+
+    //Releases that have expired, but not by more than the staleness window
+    public synchronized ReleasePage getStale(String forgeKey, String moduleName) {
+        Entry entry = entry(forgeKey, moduleName);
+        return entry == null || entry.expiryTime > clock.currentTimeMillis() ? null : entry.releases;
+    }
+
+    private Entry entry(String forgeKey, String moduleName) {
+        String key = key(forgeKey, moduleName);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.staleExpiryTime <= clock.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    //Each forge has its own staleness window, so the entry remembers how long it can be used after it expires
+    public synchronized void put(String forgeKey, String moduleName, ReleasePage releases, long ttlMillis, long maxStaleMillis) {
+        long expiryTime = clock.currentTimeMillis() + ttlMillis;
+        entries.put(key(forgeKey, moduleName), new Entry(releases, expiryTime, expiryTime + maxStaleMillis));
+    }
+
+    private static String key(String forgeKey, String moduleName) {
+        return forgeKey + " " + moduleName;
+    }
+}
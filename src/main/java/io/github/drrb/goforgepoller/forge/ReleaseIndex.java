@@ -0,0 +1,119 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.forge.api.ModuleRelease;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class ReleaseIndex {
+
+    public static class Builder {
+        private final List<ModuleRelease> releases = new ArrayList<>();
+
+        public Builder add(Version version, String file) {
+            releases.add(new ModuleRelease(version, file));
+            return this;
+        }
+
+        public Builder addAll(ReleaseIndex index) {
+            for (int i = 0; i < index.size(); i++) {
+                releases.add(new ModuleRelease(index.versions[i], index.files[i]));
+            }
+            return this;
+        }
+
+        public ReleaseIndex build() {
+            Collections.sort(releases, new Comparator<ModuleRelease>() {
+                @Override
+                public int compare(ModuleRelease a, ModuleRelease b) {
+                    return a.getVersion().compareTo(b.getVersion());
+                }
+            });
+
+            Version[] versions = new Version[releases.size()];
+            String[] files = new String[releases.size()];
+            int size = 0;
+            for (ModuleRelease release : releases) {
+                if (size > 0 && versions[size - 1].compareTo(release.getVersion()) == 0) {
+                    size--;
+                }
+                versions[size] = release.getVersion();
+                files[size] = release.getFile();
+                size++;
+            }
+            return new ReleaseIndex(versions, files, size);
+        }
+    }
+
+    private final Version[] versions;
+    private final String[] files;
+
+    private ReleaseIndex(Version[] versions, String[] files, int size) {
+        if (size == versions.length) {
+            this.versions = versions;
+            this.files = files;
+        } else {
+            this.versions = new Version[size];
+            this.files = new String[size];
+            System.arraycopy(versions, 0, this.versions, 0, size);
+            System.arraycopy(files, 0, this.files, 0, size);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return versions.length;
+    }
+
+    Version versionAt(int index) {
+        return versions[index];
+    }
+
+    String fileAt(int index) {
+        return files[index];
+    }
+
+    public ModuleRelease latestBetween(Version lowerBoundInclusive, Version upperBoundExclusive) {
+        int latest = firstIndexNotLessThan(upperBoundExclusive) - 1;
+        if (latest < 0 || versions[latest].compareTo(lowerBoundInclusive) < 0) {
+            return null;
+        }
+        return new ModuleRelease(versions[latest], files[latest]);
+    }
+
+    private int firstIndexNotLessThan(Version version) {
+        int low = 0;
+        int high = versions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (versions[middle].compareTo(version) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
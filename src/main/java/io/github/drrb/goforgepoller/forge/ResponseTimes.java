@@ -0,0 +1,89 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.metrics.LatencyHistogram;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//How long each forge has taken to respond lately. Each forge's responses are counted in windows, so a forge that
+//slows down or speeds up isn't judged by how it responded long ago.
+@Singleton
+public class ResponseTimes {
+    private static final int WINDOW_SIZE = 100;
+    private static final int MIN_RESPONSES = 20;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final int windowSize;
+    private final int minResponses;
+
+    @Inject
+    public ResponseTimes() {
+        this(WINDOW_SIZE, MIN_RESPONSES);
+    }
+
+    public ResponseTimes(int windowSize, int minResponses) {
+        this.windowSize = windowSize;
+        this.minResponses = minResponses;
+    }
+
+    public void record(String forge, long nanos) {
+        Window window = windows.get(forge);
+        if (window == null) {
+            windows.putIfAbsent(forge, new Window());
+            window = windows.get(forge);
+        }
+        window.record(nanos);
+    }
+
+    //The slower of the last full window and the current one (once it has enough responses), or -1 if we haven't
+    //seen enough responses from the forge yet
+    public double getPercentileMillis(String forge, double percentile) {
+        Window window = windows.get(forge);
+        return window == null ? -1 : window.getPercentileMillis(percentile);
+    }
+
+    private class Window {
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous;
+
+        void record(long nanos) {
+            LatencyHistogram current = this.current;
+            current.record(nanos);
+            if (current.getCount() >= windowSize) {
+                synchronized (this) {
+                    if (this.current == current) {
+                        previous = current;
+                        this.current = new LatencyHistogram();
+                    }
+                }
+            }
+        }
+
+        double getPercentileMillis(double percentile) {
+            LatencyHistogram previous = this.previous;
+            LatencyHistogram current = this.current;
+            double previousMillis = previous == null ? -1 : previous.getPercentileMillis(percentile);
+            double currentMillis = current.getCount() < minResponses ? -1 : current.getPercentileMillis(percentile);
+            return Math.max(previousMillis, currentMillis);
+        }
+    }
+}
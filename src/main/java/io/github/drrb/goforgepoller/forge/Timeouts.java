@@ -0,0 +1,87 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import java.util.concurrent.TimeUnit;
+
+//How long to wait for a forge. Adaptive timeouts wait a few times as long as the forge takes to respond to nearly all
+//requests (within the configured timeout), so we give up on a forge that hangs without waiting the whole timeout.
+public class Timeouts {
+    public static final int DEFAULT_SECONDS = 20;
+    private static final double ADAPTIVE_PERCENTILE = 99;
+    private static final int ADAPTIVE_MULTIPLIER = 4;
+    private static final int MIN_ADAPTIVE_READ_TIMEOUT_MILLIS = 1000;
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final ResponseTimes responseTimes;
+
+    public static Timeouts defaults() {
+        return new Timeouts(toMillis(DEFAULT_SECONDS), toMillis(DEFAULT_SECONDS), null);
+    }
+
+    public static Timeouts forSettings(String connectTimeoutSeconds, String readTimeoutSeconds, String adaptive, ResponseTimes responseTimes) {
+        return new Timeouts(
+                toMillis(connectTimeoutSeconds.isEmpty() ? DEFAULT_SECONDS : Integer.parseInt(connectTimeoutSeconds)),
+                toMillis(readTimeoutSeconds.isEmpty() ? DEFAULT_SECONDS : Integer.parseInt(readTimeoutSeconds)),
+                "true".equals(adaptive) ? responseTimes : null
+        );
+    }
+
+    public static boolean isValidSeconds(String seconds) {
+        return seconds.matches("\\A([1-9]\\d{0,5})?\\Z");
+    }
+
+    public static boolean isValidAdaptiveSetting(String adaptive) {
+        return adaptive.matches("\\A(true|false)?\\Z");
+    }
+
+    //Response times are only recorded and used if they're given
+    public Timeouts(int connectTimeoutMillis, int readTimeoutMillis, ResponseTimes responseTimes) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.responseTimes = responseTimes;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis(String forge) {
+        if (responseTimes == null) {
+            return readTimeoutMillis;
+        }
+        double responseMillis = responseTimes.getPercentileMillis(forge, ADAPTIVE_PERCENTILE);
+        if (responseMillis < 0) {
+            return readTimeoutMillis;
+        }
+        long adaptiveMillis = Math.max((long) Math.ceil(responseMillis * ADAPTIVE_MULTIPLIER), MIN_ADAPTIVE_READ_TIMEOUT_MILLIS);
+        return (int) Math.min(adaptiveMillis, readTimeoutMillis);
+    }
+
+    //Includes requests that timed out, so a forge that slows down gets longer timeouts again
+    public void responseReceived(String forge, long nanos) {
+        if (responseTimes != null) {
+            responseTimes.record(forge, nanos);
+        }
+    }
+
+    private static int toMillis(int seconds) {
+        return (int) TimeUnit.SECONDS.toMillis(seconds);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Singleton
+public class ValidatorCache {
+
+    public static class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final Object content;
+
+        public Entry(String etag, String lastModified, Object content) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.content = content;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T getContent() {
+            return (T) content;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+    private final DiskCache diskCache;
+
+    public ValidatorCache() {
+        this(DiskCache.disabled());
+    }
+
+    //Keeps as many responses in memory as we keep modules' releases
+    @Inject
+    public ValidatorCache(DiskCache diskCache) {
+        this(diskCache, Integer.getInteger(ReleaseCache.MAX_MODULES, ReleaseCache.DEFAULT_MAX_MODULES));
+    }
+
+    public ValidatorCache(DiskCache diskCache, final int maxEntries) {
+        this.diskCache = diskCache;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Entry get(String key) {
+        Entry entry = memoryEntry(key);
+        if (entry == null && diskCache.isEnabled()) {
+            entry = diskCache.load(key);
+            if (entry != null) {
+                synchronized (entries) {
+                    Entry existing = entries.get(key);
+                    if (existing != null) {
+                        return existing;
+                    }
+                    entries.put(key, entry);
+                }
+            }
+        }
+        return entry;
+    }
+
+    public void put(String key, String etag, String lastModified, Object content) {
+        if (etag == null && lastModified == null) {
+            synchronized (entries) {
+                entries.remove(key);
+            }
+            diskCache.remove(key);
+        } else {
+            Entry entry = new Entry(etag, lastModified, content);
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+            diskCache.store(key, entry);
+        }
+    }
+
+    private Entry memoryEntry(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+}
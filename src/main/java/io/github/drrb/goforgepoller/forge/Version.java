@@ -17,78 +17,176 @@
  */
 package io.github.drrb.goforgepoller.forge;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class Version implements Comparable<Version> {
 
     public static final Version ZERO = new Version(String.valueOf(0));
     public static final Version INFINITY = new Version(String.valueOf(Integer.MAX_VALUE));
+
+    private static final int MAX_INTERNED_VERSIONS = 10000;
+    private static final ConcurrentMap<String, Version> interned = new ConcurrentHashMap<>();
+
+    private final String source;
     private final String string;
-    private final List<Object> components;
+    //Numeric components, with 0 standing in for the non-numeric ones
+    private final int[] numbers;
+    //Non-numeric components by position, or null if every component is numeric
+    private final String[] labels;
 
     private Version(String string) {
-        if (!isValid(string)) {
+        Components components = new Components();
+        if (!scan(string, components)) {
             throw new IllegalArgumentException("Expected a version number matching /\\A\\d+([.-][a-zA-Z0-9]+)*\\Z/, but got \"" + string + "\"");
         }
-        this.string = string.replaceAll("-", ".pre.");
-        this.components = parse(string);
+        this.source = string;
+        this.string = replaceHyphens(string);
+        this.numbers = components.numbers();
+        this.labels = components.labels();
     }
 
     public static boolean isValid(String string) {
-        return string.matches("\\A\\d+([.-][a-zA-Z0-9]+)*\\Z");
+        return scan(string, null);
     }
 
-    public static Version of(String version) {
-        return new Version(version);
+    public static Version of(String string) {
+        Version version = interned.get(string);
+        if (version == null) {
+            version = new Version(string);
+            if (interned.size() >= MAX_INTERNED_VERSIONS) {
+                interned.clear();
+            }
+            interned.put(string, version);
+        }
+        return version;
     }
 
-    private static List<Object> parse(String string) {
-        String[] parts = string.split("\\.");
-        List<Object> components = new ArrayList<>(parts.length);
-        for (String part : parts) {
-            if (part.matches("\\d+")) {
-                components.add(Integer.valueOf(part));
+    private static boolean scan(String string, Components components) {
+        int length = string.length();
+        if (length == 0 || !isDigit(string.charAt(0))) {
+            return false;
+        }
+
+        int componentStart = 0;
+        boolean numeric = true;
+        long number = 0;
+        boolean seenSeparator = false;
+        boolean afterSeparator = false;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c == '.' || c == '-') {
+                if (afterSeparator) {
+                    return false;
+                }
+                seenSeparator = true;
+                afterSeparator = true;
+                if (c == '.') {
+                    addComponent(components, string, componentStart, i, numeric, number);
+                    componentStart = i + 1;
+                    numeric = true;
+                    number = 0;
+                } else {
+                    numeric = false;
+                }
+            } else if (isDigit(c)) {
+                afterSeparator = false;
+                if (number <= Integer.MAX_VALUE) {
+                    number = number * 10 + (c - '0');
+                }
+            } else if (seenSeparator && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                afterSeparator = false;
+                numeric = false;
             } else {
-                components.add(part);
+                return false;
             }
         }
-        return components;
+        if (afterSeparator) {
+            return false;
+        }
+        addComponent(components, string, componentStart, length, numeric, number);
+        return true;
+    }
+
+    private static void addComponent(Components components, String string, int start, int end, boolean numeric, long number) {
+        if (components == null) {
+            return;
+        }
+        if (!numeric) {
+            components.addLabel(string.substring(start, end));
+        } else if (number > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + string.substring(start, end) + "\"");
+        } else {
+            components.addNumber((int) number);
+        }
+    }
+
+    private static String replaceHyphens(String string) {
+        if (string.indexOf('-') < 0) {
+            return string;
+        }
+        StringBuilder replaced = new StringBuilder(string.length() + 8);
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '-') {
+                replaced.append(".pre.");
+            } else {
+                replaced.append(c);
+            }
+        }
+        return replaced.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     @Override
     public int compareTo(Version that) {
-        List<Object> versionAParts = this.components;
-        List<Object> versionBParts = that.components;
-        for (int i = 0; i < versionAParts.size() && i < versionBParts.size(); i++) {
-            Object versionAPart = versionAParts.get(i);
-            Object versionBPart = versionBParts.get(i);
-            if (!versionAPart.equals(versionBPart)) {
-                return compareParts(versionAPart, versionBPart);
+        int[] numbersA = this.numbers;
+        int[] numbersB = that.numbers;
+        int commonLength = Math.min(numbersA.length, numbersB.length);
+        if (this.labels == null && that.labels == null) {
+            for (int i = 0; i < commonLength; i++) {
+                if (numbersA[i] != numbersB[i]) {
+                    return numbersA[i] < numbersB[i] ? -1 : 1;
+                }
             }
-        }
-        if (versionAParts.size() < versionBParts.size()) {
-            return -1;
-        } else if (versionAParts.size() > versionBParts.size()) {
-            return 1;
         } else {
-            return 0;
+            for (int i = 0; i < commonLength; i++) {
+                int comparison = compareParts(i, that);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
         }
+        return Integer.compare(numbersA.length, numbersB.length);
     }
 
-    private int compareParts(Object versionAPart, Object versionBPart) {
-        if (versionAPart instanceof String && versionBPart instanceof Integer) {
+    private int compareParts(int index, Version that) {
+        String labelA = this.labelAt(index);
+        String labelB = that.labelAt(index);
+        if (labelA == null && labelB == null) {
+            return Integer.compare(this.numbers[index], that.numbers[index]);
+        } else if (labelB == null) {
             return -1;
-        } else if (versionAPart instanceof Integer && versionBPart instanceof String) {
+        } else if (labelA == null) {
             return 1;
-        } else if (versionAPart instanceof Integer) {
-            return ((Integer) versionAPart).compareTo((Integer) versionBPart);
         } else {
-            return ((String) versionAPart).compareTo((String) versionBPart);
+            return labelA.compareTo(labelB);
         }
     }
 
+    private String labelAt(int index) {
+        return labels == null ? null : labels[index];
+    }
+
+    String getSource() {
+        return source;
+    }
+
     @Override
     public String toString() {
         return string;
@@ -112,4 +210,40 @@ public class Version implements Comparable<Version> {
     public boolean isGreaterThan(Version other) {
         return this.compareTo(other) > 0;
     }
+
+    private static class Components {
+        private int[] numbers = new int[4];
+        private String[] labels;
+        private int size;
+
+        void addNumber(int number) {
+            grow();
+            numbers[size++] = number;
+        }
+
+        void addLabel(String label) {
+            grow();
+            if (labels == null) {
+                labels = new String[numbers.length];
+            }
+            labels[size++] = label;
+        }
+
+        private void grow() {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+                if (labels != null) {
+                    labels = Arrays.copyOf(labels, size * 2);
+                }
+            }
+        }
+
+        int[] numbers() {
+            return Arrays.copyOf(numbers, size);
+        }
+
+        String[] labels() {
+            return labels == null ? null : Arrays.copyOf(labels, size);
+        }
+    }
 }
@@ -0,0 +1,67 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge.api;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
+import io.github.drrb.goforgepoller.forge.Version;
+
+import java.io.IOException;
+
+//Reading shared by the forge's responses, which only differ in what they call a release's file
+class JsonReleases {
+    private JsonReleases() {
+    }
+
+    static void readReleases(JsonParser parser, String fileField, ReleaseIndex.Builder releases) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                readRelease(parser, fileField, releases);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readRelease(JsonParser parser, String fileField, ReleaseIndex.Builder releases) throws IOException {
+        String version = null;
+        String file = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("version") && value == JsonToken.VALUE_STRING) {
+                version = parser.getText();
+            } else if (field.equals(fileField) && value == JsonToken.VALUE_STRING) {
+                file = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (version != null) {
+            releases.add(Version.of(version), file);
+        }
+    }
+
+    static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException(String.format("Expected %s in forge response, but got %s", expected, actual));
+        }
+    }
+}
@@ -17,22 +17,22 @@
  */
 package io.github.drrb.goforgepoller.forge.api;
 
-
-import com.google.api.client.json.GenericJson;
-import com.google.api.client.util.Key;
 import io.github.drrb.goforgepoller.forge.Version;
 
-public class ModuleRelease extends GenericJson {
-    @Key
-    private String file;
-    @Key
-    private String version;
+public class ModuleRelease {
+    private final Version version;
+    private final String file;
+
+    public ModuleRelease(Version version, String file) {
+        this.version = version;
+        this.file = file;
+    }
 
     public String getFile() {
         return file;
     }
 
     public Version getVersion() {
-        return Version.of(version);
+        return version;
     }
 }
@@ -17,32 +17,28 @@
  */
 package io.github.drrb.goforgepoller.forge.api;
 
-import com.google.api.client.json.GenericJson;
-import com.google.api.client.util.Key;
-import io.github.drrb.goforgepoller.forge.Version;
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
-public class ModuleReleases extends GenericJson {
-    public Map<Version, ModuleRelease> getReleases(String module) throws IOException {
-        Object moduleReleaseJsonObject = get(module);
-        GenericJson releaseListJson = new GenericJson();
-        releaseListJson.put("releases", moduleReleaseJsonObject);
-        String releaseListJsonString = getFactory().toString(releaseListJson);
-        ReleaseList releaseList = getFactory().fromString(releaseListJsonString, ReleaseList.class);
-        HashMap<Version, ModuleRelease> releases = new HashMap<>();
-        for (ModuleRelease release : releaseList.releases) {
-            releases.put(release.getVersion(), release);
-        }
-        return releases;
+public class ModuleReleases {
+    private ModuleReleases() {
     }
 
-    public static class ReleaseList extends GenericJson {
-        @Key
-        private List<ModuleRelease> releases;
-
+    public static ReleaseIndex read(JsonParser parser, String module) throws IOException {
+        ReleaseIndex.Builder releases = ReleaseIndex.builder();
+        JsonReleases.expect(parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String moduleName = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && moduleName.equals(module)) {
+                JsonReleases.readReleases(parser, "file", releases);
+                break;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return releases.build();
     }
 }
@@ -0,0 +1,78 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge.api;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PagedModules {
+    private PagedModules() {
+    }
+
+    //Returns each module's releases by its slug (e.g. "puppetlabs-apache")
+    public static Map<String, ReleaseIndex> read(JsonParser parser) throws IOException {
+        Map<String, ReleaseIndex> modules = new HashMap<>();
+        JsonReleases.expect(parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("results") && value == JsonToken.START_ARRAY) {
+                readModules(parser, modules);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return modules;
+    }
+
+    private static void readModules(JsonParser parser, Map<String, ReleaseIndex> modules) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                readModule(parser, modules);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readModule(JsonParser parser, Map<String, ReleaseIndex> modules) throws IOException {
+        String slug = null;
+        ReleaseIndex.Builder releases = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("slug") && value == JsonToken.VALUE_STRING) {
+                slug = parser.getText();
+            } else if (field.equals("releases") && value == JsonToken.START_ARRAY) {
+                releases = ReleaseIndex.builder();
+                JsonReleases.readReleases(parser, "file_uri", releases);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (slug != null && releases != null) {
+            modules.put(slug, releases.build());
+        }
+    }
+}
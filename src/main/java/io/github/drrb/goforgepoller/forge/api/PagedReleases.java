@@ -0,0 +1,61 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge.api;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
+
+import java.io.IOException;
+
+public class PagedReleases {
+    private PagedReleases() {
+    }
+
+    public static ReleasePage read(JsonParser parser) throws IOException {
+        ReleaseIndex.Builder releases = ReleaseIndex.builder();
+        String next = null;
+        JsonReleases.expect(parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("pagination") && value == JsonToken.START_OBJECT) {
+                next = readNext(parser);
+            } else if (field.equals("results") && value == JsonToken.START_ARRAY) {
+                JsonReleases.readReleases(parser, "file_uri", releases);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new ReleasePage(releases.build(), next);
+    }
+
+    private static String readNext(JsonParser parser) throws IOException {
+        String next = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("next") && value == JsonToken.VALUE_STRING) {
+                next = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return next;
+    }
+}
@@ -17,33 +17,22 @@
  */
 package io.github.drrb.goforgepoller.forge.api;
 
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
 
-import com.google.api.client.json.GenericJson;
-import com.google.api.client.util.Key;
-import io.github.drrb.goforgepoller.forge.Version;
+public class ReleasePage {
+    private final ReleaseIndex releases;
+    private final String next;
 
-import java.util.ArrayList;
-import java.util.List;
-
-public class ModuleMetadata extends GenericJson {
-    @Key
-    private List<Release> releases;
-
-    public List<Version> getVersions() {
-        List<Version> versions = new ArrayList<>(releases.size());
-        for (Release release : releases) {
-            versions.add(release.getVersion());
-        }
-        return versions;
+    public ReleasePage(ReleaseIndex releases, String next) {
+        this.releases = releases;
+        this.next = next;
     }
 
-    public static class Release extends GenericJson {
-        @Key
-        private String version;
-
-        public Version getVersion() {
-            return Version.of(version);
-        }
+    public ReleaseIndex getReleases() {
+        return releases;
+    }
 
+    public String getNext() {
+        return next;
     }
 }
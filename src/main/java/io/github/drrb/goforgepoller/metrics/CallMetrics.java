@@ -0,0 +1,75 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CallMetrics implements CallMetricsMBean {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+
+    public void recordCall(long nanos) {
+        latency.record(nanos);
+    }
+
+    public void recordError(long nanos) {
+        latency.record(nanos);
+        errors.incrementAndGet();
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.get();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanMillis();
+    }
+
+    @Override
+    public double get50thPercentileMillis() {
+        return latency.getPercentileMillis(50);
+    }
+
+    @Override
+    public double get95thPercentileMillis() {
+        return latency.getPercentileMillis(95);
+    }
+
+    @Override
+    public double get99thPercentileMillis() {
+        return latency.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("calls=%d errors=%d mean=%.1fms p50=%.0fms p95=%.0fms p99=%.0fms max=%.1fms",
+                getCalls(), getErrors(), getMeanMillis(), get50thPercentileMillis(), get95thPercentileMillis(), get99thPercentileMillis(), getMaxMillis());
+    }
+}
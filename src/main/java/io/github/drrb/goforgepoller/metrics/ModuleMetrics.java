@@ -0,0 +1,80 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ModuleMetrics implements ModuleMetricsMBean {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLongArray outcomes = new AtomicLongArray(Outcome.values().length);
+
+    public void record(Outcome outcome, long nanos) {
+        latency.record(nanos);
+        outcomes.incrementAndGet(outcome.ordinal());
+    }
+
+    public long getCount(Outcome outcome) {
+        return outcomes.get(outcome.ordinal());
+    }
+
+    @Override
+    public long getLookups() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getNewRevisions() {
+        return getCount(Outcome.NEW_REVISION);
+    }
+
+    @Override
+    public long getNoChanges() {
+        return getCount(Outcome.NO_CHANGE);
+    }
+
+    @Override
+    public long getModulesNotFound() {
+        return getCount(Outcome.MODULE_NOT_FOUND);
+    }
+
+    @Override
+    public long getForgeUnavailable() {
+        return getCount(Outcome.FORGE_UNAVAILABLE);
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanMillis();
+    }
+
+    @Override
+    public double get95thPercentileMillis() {
+        return latency.getPercentileMillis(95);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("lookups=%d new=%d unchanged=%d notFound=%d unavailable=%d mean=%.1fms p95=%.0fms max=%.1fms",
+                getLookups(), getNewRevisions(), getNoChanges(), getModulesNotFound(), getForgeUnavailable(), getMeanMillis(), get95thPercentileMillis(), getMaxMillis());
+    }
+}
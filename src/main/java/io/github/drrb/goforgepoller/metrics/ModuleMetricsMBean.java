@@ -0,0 +1,36 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+public interface ModuleMetricsMBean {
+    long getLookups();
+
+    long getNewRevisions();
+
+    long getNoChanges();
+
+    long getModulesNotFound();
+
+    long getForgeUnavailable();
+
+    double getMeanMillis();
+
+    double get95thPercentileMillis();
+
+    double getMaxMillis();
+}
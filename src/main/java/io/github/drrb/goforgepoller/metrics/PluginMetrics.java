@@ -0,0 +1,195 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+import io.github.drrb.goforgepoller.util.Log;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+public class PluginMetrics {
+    public static final String SUMMARY_INTERVAL_SECONDS = "goforgepoller.metrics.summaryIntervalSeconds";
+    public static final String TIME_REQUESTS = "goforgepoller.metrics.timeRequests";
+    public static final String JMX_DOMAIN = "io.github.drrb.goforgepoller";
+
+    private static final int DEFAULT_SUMMARY_INTERVAL_SECONDS = 300;
+
+    private static final ScheduledExecutorService summaryLogger = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "forge-metrics-summary");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Log LOG = Log.getLogFor(PluginMetrics.class);
+    private final MBeanServer mBeanServer;
+    private final boolean timeRequests;
+    private final ConcurrentMap<String, CallMetrics> entryPoints = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ModuleMetrics> modules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RequestMetrics> requests = new ConcurrentHashMap<>();
+    private final Set<ObjectName> registeredNames = Collections.newSetFromMap(new ConcurrentHashMap<ObjectName, Boolean>());
+    private ScheduledFuture<?> summaryTask;
+
+    public PluginMetrics() {
+        this(null, true);
+    }
+
+    public PluginMetrics(MBeanServer mBeanServer, boolean timeRequests) {
+        this.mBeanServer = mBeanServer;
+        this.timeRequests = timeRequests;
+    }
+
+    public static PluginMetrics create() {
+        boolean timeRequests = !"false".equalsIgnoreCase(System.getProperty(TIME_REQUESTS));
+        PluginMetrics metrics = new PluginMetrics(ManagementFactory.getPlatformMBeanServer(), timeRequests);
+        int summaryIntervalSeconds = Integer.getInteger(SUMMARY_INTERVAL_SECONDS, DEFAULT_SUMMARY_INTERVAL_SECONDS);
+        if (summaryIntervalSeconds > 0) {
+            metrics.logSummaryEvery(summaryIntervalSeconds);
+        }
+        return metrics;
+    }
+
+    public CallMetrics forEntryPoint(String name) {
+        CallMetrics metrics = entryPoints.get(name);
+        if (metrics == null) {
+            CallMetrics newMetrics = new CallMetrics();
+            metrics = entryPoints.putIfAbsent(name, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+                register(metrics, "type=EntryPoint,name=" + ObjectName.quote(name));
+            }
+        }
+        return metrics;
+    }
+
+    public ModuleMetrics forModule(String forgeUrl, String moduleName) {
+        String key = forgeUrl + " " + moduleName;
+        ModuleMetrics metrics = modules.get(key);
+        if (metrics == null) {
+            ModuleMetrics newMetrics = new ModuleMetrics();
+            metrics = modules.putIfAbsent(key, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+                register(metrics, "type=Module,forge=" + ObjectName.quote(forgeUrl) + ",name=" + ObjectName.quote(moduleName));
+            }
+        }
+        return metrics;
+    }
+
+    public RequestTimer startRequest(String forgeUrl, String endpoint) {
+        if (!timeRequests) {
+            return RequestTimer.DISABLED;
+        }
+        return RequestTimer.start(forRequests(forgeUrl, endpoint));
+    }
+
+    public RequestMetrics forRequests(String forgeUrl, String endpoint) {
+        String key = forgeUrl + " " + endpoint;
+        RequestMetrics metrics = requests.get(key);
+        if (metrics == null) {
+            RequestMetrics newMetrics = new RequestMetrics();
+            metrics = requests.putIfAbsent(key, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+                register(metrics, "type=Requests,forge=" + ObjectName.quote(forgeUrl) + ",name=" + ObjectName.quote(endpoint));
+            }
+        }
+        return metrics;
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder("Plugin metrics since startup:");
+        for (Map.Entry<String, CallMetrics> entryPoint : new TreeMap<>(entryPoints).entrySet()) {
+            summary.append("\n  ").append(entryPoint.getKey()).append(": ").append(entryPoint.getValue());
+        }
+        for (Map.Entry<String, ModuleMetrics> module : new TreeMap<>(modules).entrySet()) {
+            summary.append("\n  ").append(module.getKey()).append(": ").append(module.getValue());
+        }
+        for (Map.Entry<String, RequestMetrics> endpoint : new TreeMap<>(requests).entrySet()) {
+            summary.append("\n  ").append(endpoint.getKey()).append(": ").append(endpoint.getValue());
+        }
+        return summary.toString();
+    }
+
+    //Replaces any summary we were already logging, so there's only ever one
+    public synchronized ScheduledFuture<?> logSummaryEvery(long intervalSeconds) {
+        if (summaryTask != null) {
+            summaryTask.cancel(false);
+        }
+        summaryTask = summaryLogger.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                if (!entryPoints.isEmpty()) {
+                    LOG.info("%s", summary());
+                }
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        return summaryTask;
+    }
+
+    //Stops logging the summary and takes our metrics out of JMX, so nothing keeps them alive once the plugin is unloaded
+    public synchronized void close() {
+        if (summaryTask != null) {
+            summaryTask.cancel(false);
+            summaryTask = null;
+        }
+        for (ObjectName name : registeredNames) {
+            try {
+                mBeanServer.unregisterMBean(name);
+            } catch (InstanceNotFoundException e) {
+                //Already gone
+            } catch (JMException e) {
+                LOG.info("Couldn't remove metrics from JMX: %s", e);
+            }
+            registeredNames.remove(name);
+        }
+    }
+
+    private void register(Object mBean, String properties) {
+        if (mBeanServer == null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":" + properties);
+            //The plugin can be loaded more than once in the same JVM, so the latest metrics win
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(mBean, name);
+            registeredNames.add(name);
+        } catch (JMException e) {
+            LOG.info("Couldn't publish metrics to JMX: %s", e);
+        }
+    }
+}
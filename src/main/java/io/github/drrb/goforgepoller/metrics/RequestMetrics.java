@@ -0,0 +1,135 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RequestMetrics implements RequestMetricsMBean {
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram server = new LatencyHistogram();
+    private final LatencyHistogram download = new LatencyHistogram();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong successfulResponses = new AtomicLong();
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+    private final AtomicLong clientErrorResponses = new AtomicLong();
+    private final AtomicLong serverErrorResponses = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    //Bytes read are after decompression, and bytes received are what the forge sent (if the HTTP client counts them)
+    void recordResponse(int statusCode, long connectNanos, long serverNanos, long downloadNanos, long bytes, long bytesReceived) {
+        if (statusCode == 304) {
+            notModifiedResponses.incrementAndGet();
+        } else if (statusCode >= 200 && statusCode < 300) {
+            successfulResponses.incrementAndGet();
+        } else if (statusCode >= 400 && statusCode < 500) {
+            clientErrorResponses.incrementAndGet();
+        } else if (statusCode >= 500) {
+            serverErrorResponses.incrementAndGet();
+        }
+        connect.record(connectNanos);
+        server.record(serverNanos);
+        download.record(downloadNanos);
+        total.record(connectNanos + serverNanos + downloadNanos);
+        bytesRead.addAndGet(bytes);
+        this.bytesReceived.addAndGet(bytesReceived);
+    }
+
+    void recordFailure(long nanos) {
+        failures.incrementAndGet();
+        total.record(nanos);
+    }
+
+    @Override
+    public long getRequests() {
+        return total.getCount();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getSuccessfulResponses() {
+        return successfulResponses.get();
+    }
+
+    @Override
+    public long getNotModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    @Override
+    public long getClientErrorResponses() {
+        return clientErrorResponses.get();
+    }
+
+    @Override
+    public long getServerErrorResponses() {
+        return serverErrorResponses.get();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    @Override
+    public double getMeanConnectMillis() {
+        return connect.getMeanMillis();
+    }
+
+    @Override
+    public double getMeanServerMillis() {
+        return server.getMeanMillis();
+    }
+
+    @Override
+    public double getMeanDownloadMillis() {
+        return download.getMeanMillis();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return total.getMeanMillis();
+    }
+
+    @Override
+    public double get95thPercentileMillis() {
+        return total.getPercentileMillis(95);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return total.getMaxMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d failures=%d 2xx=%d 304=%d 4xx=%d 5xx=%d bytes=%d received=%d connect=%.1fms server=%.1fms download=%.1fms mean=%.1fms p95=%.0fms max=%.1fms",
+                getRequests(), getFailures(), getSuccessfulResponses(), getNotModifiedResponses(), getClientErrorResponses(), getServerErrorResponses(), getBytesRead(), getBytesReceived(),
+                getMeanConnectMillis(), getMeanServerMillis(), getMeanDownloadMillis(), getMeanMillis(), get95thPercentileMillis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+public class RequestTimer {
+    static final RequestTimer DISABLED = new RequestTimer(null);
+
+    //Lets the HTTP client mark when the connection is ready, without knowing which request it's for
+    private static final ThreadLocal<RequestTimer> current = new ThreadLocal<>();
+
+    private final RequestMetrics metrics;
+    private final long start;
+    private long connected;
+    private long responded;
+    private int statusCode = -1;
+    private long bytes;
+    private long bytesReceived;
+
+    private RequestTimer(RequestMetrics metrics) {
+        this.metrics = metrics;
+        this.start = System.nanoTime();
+    }
+
+    static RequestTimer start(RequestMetrics metrics) {
+        RequestTimer timer = new RequestTimer(metrics);
+        current.set(timer);
+        return timer;
+    }
+
+    public static void connectionEstablished() {
+        RequestTimer timer = current.get();
+        if (timer != null) {
+            timer.connected = System.nanoTime();
+        }
+    }
+
+    //Lets the HTTP client count the bytes the forge sends, before they're decompressed
+    public static void bytesReceived(long bytes) {
+        RequestTimer timer = current.get();
+        if (timer != null && timer.metrics != null) {
+            timer.bytesReceived += bytes;
+        }
+    }
+
+    public void responseReceived(int statusCode) {
+        if (metrics != null) {
+            this.responded = System.nanoTime();
+            this.statusCode = statusCode;
+        }
+    }
+
+    public void bytesRead(long bytes) {
+        if (metrics != null) {
+            this.bytes += bytes;
+        }
+    }
+
+    public void finish() {
+        if (metrics == null) {
+            return;
+        }
+        current.remove();
+        long end = System.nanoTime();
+        if (statusCode < 0) {
+            metrics.recordFailure(end - start);
+        } else {
+            long requestSent = connected == 0 ? start : connected;
+            metrics.recordResponse(statusCode, requestSent - start, responded - requestSent, end - responded, bytes, bytesReceived);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.util;
+
+import com.thoughtworks.go.plugin.api.config.Configuration;
+import com.thoughtworks.go.plugin.api.config.Property;
+import com.thoughtworks.go.plugin.api.material.packagerepository.PackageRevision;
+import com.thoughtworks.go.plugin.api.response.Result;
+import com.thoughtworks.xstream.XStream;
+
+public class DebugRendering {
+    private static final XStream xstream = new XStream();
+
+    private DebugRendering() {
+    }
+
+    public static String render(Object object) {
+        if (object == null || object instanceof CharSequence || object instanceof Number || object instanceof Boolean || object instanceof Enum) {
+            return String.valueOf(object);
+        } else if (object instanceof Configuration) {
+            return render((Configuration) object);
+        } else if (object instanceof PackageRevision) {
+            return render((PackageRevision) object);
+        } else if (object instanceof Result) {
+            return render((Result) object);
+        } else {
+            return xstream.toXML(object);
+        }
+    }
+
+    private static String render(Configuration configuration) {
+        StringBuilder rendered = new StringBuilder(configuration.getClass().getSimpleName()).append("{");
+        boolean first = true;
+        for (Property property : configuration.list()) {
+            if (!first) {
+                rendered.append(", ");
+            }
+            first = false;
+            rendered.append(property.getKey()).append("=");
+            if (Boolean.TRUE.equals(property.getOption(Property.SECURE))) {
+                rendered.append("****");
+            } else {
+                rendered.append(property.getValue());
+            }
+        }
+        return rendered.append("}").toString();
+    }
+
+    private static String render(PackageRevision revision) {
+        return new StringBuilder("PackageRevision{")
+                .append("revision=").append(revision.getRevision())
+                .append(", timestamp=").append(revision.getTimestamp())
+                .append(", user=").append(revision.getUser())
+                .append(", data=").append(revision.getData())
+                .append("}").toString();
+    }
+
+    private static String render(Result result) {
+        return new StringBuilder("Result{")
+                .append("successful=").append(result.isSuccessful())
+                .append(", messages=").append(result.getMessages())
+                .append("}").toString();
+    }
+}
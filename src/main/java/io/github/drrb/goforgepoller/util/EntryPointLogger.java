@@ -17,19 +17,39 @@
  */
 package io.github.drrb.goforgepoller.util;
 
+import io.github.drrb.goforgepoller.metrics.CallMetrics;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import javax.inject.Provider;
+
 public class EntryPointLogger implements MethodInterceptor {
+    //Looked up when called, since interceptors are bound before the injector can give us its metrics
+    private final Provider<PluginMetrics> metrics;
+
+    public EntryPointLogger(Provider<PluginMetrics> metrics) {
+        this.metrics = metrics;
+    }
+
     public Object invoke(MethodInvocation invocation) throws Throwable {
         Log log = getLog(invocation.getMethod().getDeclaringClass());
+        CallMetrics callMetrics = metrics.get().forEntryPoint(invocation.getMethod().getName());
+        long start = System.nanoTime();
 
-        log.debug(methodSignatureFormat(invocation), invocation.getArguments());
+        boolean debugEnabled = log.isDebugEnabled();
+        if (debugEnabled) {
+            log.debug(methodSignatureFormat(invocation), invocation.getArguments());
+        }
         try {
             Object returnValue = invocation.proceed();
-            log.debug(invocation.getMethod().getName() + " -> %s", returnValue);
+            callMetrics.recordCall(System.nanoTime() - start);
+            if (debugEnabled) {
+                log.debug(invocation.getMethod().getName() + " -> %s", returnValue);
+            }
             return returnValue;
         } catch (Throwable throwable) {
+            callMetrics.recordError(System.nanoTime() - start);
             log.error(invocation.getMethod() + " throwing error", throwable);
             throw throwable;
         }
@@ -22,7 +22,8 @@ public class Exceptions {
     }
 
     public static String render(Throwable throwable) {
-        StringBuilder detailedMessage = new StringBuilder(throwable.getMessage());
+        String message = throwable.getMessage() == null ? throwable.getClass().getSimpleName() : throwable.getMessage();
+        StringBuilder detailedMessage = new StringBuilder(message);
         if (throwable.getCause() != null) {
             detailedMessage.append(" (").append(render(throwable.getCause())).append(")");
         }
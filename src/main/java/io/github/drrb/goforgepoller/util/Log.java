@@ -18,12 +18,15 @@
 package io.github.drrb.goforgepoller.util;
 
 import com.thoughtworks.go.plugin.api.logging.Logger;
-import com.thoughtworks.xstream.XStream;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
 public class Log {
+    //Go decides which plugin log messages to keep based on this property, but doesn't tell plugins
+    public static final String LOG_LEVEL = "plugin.puppetforge.log.level";
+    private static final boolean debugLevelConfigured = Level.DEBUG.name().equalsIgnoreCase(System.getProperty(LOG_LEVEL));
+
     private static final ThreadLocal<Boolean> globallyEnabled = new ThreadLocal<Boolean>() {
         @Override
         protected Boolean initialValue() {
@@ -57,13 +60,19 @@ public class Log {
         this.logger = logger;
     }
 
+    public boolean isDebugEnabled() {
+        return debugLevelConfigured && isEnabled();
+    }
+
     public void debug(String format, Object... args) {
-        args = args.clone();
+        if (!isDebugEnabled()) {
+            return;
+        }
+        Object[] renderedArgs = new Object[args.length];
         for (int i = 0; i < args.length; i++) {
-            XStream xstream = new XStream();
-            args[i] = xstream.toXML(args[i]);
+            renderedArgs[i] = DebugRendering.render(args[i]);
         }
-        logFormatted(Level.DEBUG, format, args);
+        logFormatted(Level.DEBUG, format, renderedArgs);
     }
 
     public void info(String format, Object... args) {
@@ -109,6 +109,126 @@ public class ForgePollerPluginConfigTest {
         assertThat(validationResult.getMessages(), hasItem(equalTo("Forge URL must be an HTTP(S) URL")));
     }
 
+    @Test
+    public void shouldAcceptRepoConfigIfCacheTtlIsANumber() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(CACHE_TTL_SECONDS, "120"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(true));
+    }
+
+    @Test
+    public void shouldRejectRepoConfigIfCacheTtlIsNotANumber() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(CACHE_TTL_SECONDS, "-1"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(false));
+        assertThat(validationResult.getMessages(), hasItem(equalTo("Seconds to cache module releases should be a whole number")));
+    }
+
+    @Test
+    public void shouldAcceptRepoConfigIfMaxStaleIsANumber() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(MAX_STALE_SECONDS, "0"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(true));
+    }
+
+    @Test
+    public void shouldRejectRepoConfigIfMaxStaleIsNotANumber() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(MAX_STALE_SECONDS, "forever"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(false));
+        assertThat(validationResult.getMessages(), hasItem(equalTo("Seconds to keep using expired releases should be a whole number")));
+    }
+
+    @Test
+    public void shouldAcceptRepoConfigIfApiVersionIsSupported() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(API_VERSION, "3"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(true));
+    }
+
+    @Test
+    public void shouldRejectRepoConfigIfApiVersionIsNotSupported() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(API_VERSION, "2"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(false));
+        assertThat(validationResult.getMessages(), hasItem(equalTo("Forge API version should be 1 or 3")));
+    }
+
+    @Test
+    public void shouldRejectRepoConfigIfReleaseOrderIsNotABoolean() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(RELEASES_NEWEST_FIRST, "yes"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(false));
+        assertThat(validationResult.getMessages(), hasItem(equalTo("Forge lists releases newest version first should be true or false")));
+    }
+
+    @Test
+    public void shouldAcceptRepoConfigWithTimeouts() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(CONNECT_TIMEOUT_SECONDS, "5"));
+        repoConfig.add(property(READ_TIMEOUT_SECONDS, "10"));
+        repoConfig.add(property(ADAPTIVE_TIMEOUTS, "true"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(true));
+    }
+
+    @Test
+    public void shouldRejectRepoConfigIfTimeoutsAreNotPositiveNumbers() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(CONNECT_TIMEOUT_SECONDS, "0"));
+        repoConfig.add(property(READ_TIMEOUT_SECONDS, "ten"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(false));
+        assertThat(validationResult.getMessages(), hasItem(equalTo("Seconds to wait to connect to the forge should be a whole number greater than 0")));
+        assertThat(validationResult.getMessages(), hasItem(equalTo("Seconds to wait for the forge to respond should be a whole number greater than 0")));
+    }
+
+    @Test
+    public void shouldRejectRepoConfigIfAdaptiveTimeoutsIsNotABoolean() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(property(FORGE_URL, "http://forge.puppetlabs.com"));
+        repoConfig.add(property(ADAPTIVE_TIMEOUTS, "yes"));
+
+        ValidationResult validationResult = config.isRepositoryConfigurationValid(repoConfig);
+
+        assertThat(validationResult.isSuccessful(), is(false));
+        assertThat(validationResult.getMessages(), hasItem(equalTo("Wait less for the forge to respond should be true or false")));
+    }
+
     @Test
     public void shouldAcceptPackageConfigIfNoVersionsSpecified() throws Exception {
         PackageConfiguration packageConfig = new PackageConfiguration();
@@ -24,7 +24,11 @@ import com.thoughtworks.go.plugin.api.response.Result;
 import io.github.drrb.goforgepoller.forge.Forge;
 import io.github.drrb.goforgepoller.forge.ModuleSpec;
 import io.github.drrb.goforgepoller.forge.ModuleVersion;
+import io.github.drrb.goforgepoller.forge.PooledHttpTransport;
+import io.github.drrb.goforgepoller.forge.Prefetcher;
 import io.github.drrb.goforgepoller.forge.Version;
+import io.github.drrb.goforgepoller.metrics.ModuleMetrics;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
 import io.github.drrb.test.NoLogging;
 import org.junit.Before;
 import org.junit.Rule;
@@ -33,13 +37,16 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.net.ServerSocket;
 import java.net.URL;
 
 import static io.github.drrb.goforgepoller.forge.Forge.PingFailure;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -58,13 +65,17 @@ public class ForgePollerTest {
     private ModuleSpec.Factory moduleSpecFactory;
     @Mock
     private ModuleSpec moduleSpec;
+    @Mock
+    private Prefetcher prefetcher;
     private RepositoryConfiguration repoConfig;
     private PackageConfiguration packageConfig;
     private ModuleVersion moduleVersion;
+    private PluginMetrics metrics;
 
     @Before
     public void setUp() throws Exception {
-        poller = new ForgePoller(forgeFactory, moduleSpecFactory);
+        metrics = new PluginMetrics();
+        poller = new ForgePoller(forgeFactory, moduleSpecFactory, metrics, prefetcher);
 
         repoConfig = new RepositoryConfiguration();
         packageConfig = new PackageConfiguration();
@@ -72,6 +83,8 @@ public class ForgePollerTest {
 
         when(forgeFactory.build(repoConfig)).thenReturn(forge);
         when(moduleSpecFactory.build(packageConfig)).thenReturn(moduleSpec);
+        when(forge.getBaseUrl()).thenReturn(new URL("http://forge.example.com"));
+        when(moduleSpec.getName()).thenReturn("puppetlabs/apache");
     }
 
     @Test
@@ -134,6 +147,17 @@ public class ForgePollerTest {
         PackageRevision result = poller.latestModificationSince(packageConfig, repoConfig, lastKnownRevision);
 
         assertThat(result.getRevision(), is("1.0.0"));
+        assertThat(moduleMetrics().getNewRevisions(), is(1L));
+    }
+
+    @Test
+    public void shouldTellPrefetcherWhichModulesArePolled() throws Exception {
+        PackageRevision lastKnownRevision = new PackageRevision("0.9.0", null, null);
+        when(forge.getLatestVersion(moduleSpec)).thenReturn(moduleVersion);
+
+        poller.latestModificationSince(packageConfig, repoConfig, lastKnownRevision);
+
+        verify(prefetcher).polled(forge, moduleSpec);
     }
 
     @Test
@@ -144,6 +168,7 @@ public class ForgePollerTest {
         PackageRevision result = poller.latestModificationSince(packageConfig, repoConfig, lastKnownRevision);
 
         assertThat(result, is(nullValue()));
+        assertThat(moduleMetrics().getNoChanges(), is(1L));
     }
 
     @Test
@@ -154,5 +179,59 @@ public class ForgePollerTest {
         PackageRevision result = poller.latestModificationSince(packageConfig, repoConfig, lastKnownRevision);
 
         assertThat(result, is(nullValue()));
+        assertThat(moduleMetrics().getModulesNotFound(), is(1L));
+    }
+
+    @Test
+    public void shouldReportFailureIfForgeIsUnavailable() throws Exception {
+        when(forge.getLatestVersion(moduleSpec)).thenThrow(new Forge.Unavailable("Forge http://forge.example.com keeps failing"));
+
+        try {
+            poller.getLatestRevision(packageConfig, repoConfig);
+            fail("Expected failure");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage(), containsString("keeps failing"));
+        }
+        assertThat(moduleMetrics().getForgeUnavailable(), is(1L));
+        assertThat(moduleMetrics().getModulesNotFound(), is(0L));
+    }
+
+    @Test
+    public void shouldReportFailureIfForgeIsUnavailableWhenReturningLatestModification() throws Exception {
+        PackageRevision lastKnownRevision = new PackageRevision("1.0.0", null, null);
+        when(forge.getLatestVersion(moduleSpec)).thenThrow(new Forge.Unavailable("Forge http://forge.example.com keeps failing"));
+
+        try {
+            poller.latestModificationSince(packageConfig, repoConfig, lastKnownRevision);
+            fail("Expected failure");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause(), is(instanceOf(Forge.Unavailable.class)));
+        }
+        assertThat(moduleMetrics().getForgeUnavailable(), is(1L));
+        assertThat(moduleMetrics().getModulesNotFound(), is(0L));
+    }
+
+    @Test
+    public void shouldReportFailureIfForgeRefusesConnectionsBeforeItsCircuitBreakerOpens() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        Forge unreachableForge = new Forge(new URL("http://localhost:" + closedPort), PooledHttpTransport.create(10, 2, 30));
+        when(forgeFactory.build(repoConfig)).thenReturn(unreachableForge);
+
+        try {
+            poller.getLatestRevision(packageConfig, repoConfig);
+            fail("Expected failure");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause(), is(instanceOf(Forge.Unavailable.class)));
+        }
+        ModuleMetrics moduleMetrics = metrics.forModule("http://localhost:" + closedPort, "puppetlabs/apache");
+        assertThat(moduleMetrics.getForgeUnavailable(), is(1L));
+        assertThat(moduleMetrics.getModulesNotFound(), is(0L));
+    }
+
+    private ModuleMetrics moduleMetrics() {
+        return metrics.forModule("http://forge.example.com", "puppetlabs/apache");
     }
 }
@@ -0,0 +1,104 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.test.NoLogging;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BackgroundRefresherTest {
+
+    @Rule
+    public final NoLogging noLogging = NoLogging.rule();
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private BackgroundRefresher refresher;
+
+    @Before
+    public void setUp() throws Exception {
+        refresher = new BackgroundRefresher(new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                queued.add(task);
+            }
+        });
+    }
+
+    @Test
+    public void shouldOnlyRefreshEachKeyOnceAtATime() throws Exception {
+        refresher.refresh("apache", countRefresh());
+        refresher.refresh("apache", countRefresh());
+        refresher.refresh("stdlib", countRefresh());
+
+        assertThat(queued.size(), is(2));
+        runQueued();
+        assertThat(refreshes.get(), is(2));
+    }
+
+    @Test
+    public void shouldRefreshAgainOnceTheLastRefreshIsFinished() throws Exception {
+        refresher.refresh("apache", countRefresh());
+        runQueued();
+        refresher.refresh("apache", countRefresh());
+        runQueued();
+
+        assertThat(refreshes.get(), is(2));
+    }
+
+    @Test
+    public void shouldRefreshAgainAfterARefreshFails() throws Exception {
+        refresher.refresh("apache", new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("Oops");
+            }
+        });
+        runQueued();
+        refresher.refresh("apache", countRefresh());
+        runQueued();
+
+        assertThat(refreshes.get(), is(1));
+    }
+
+    private Runnable countRefresh() {
+        return new Runnable() {
+            @Override
+            public void run() {
+                refreshes.incrementAndGet();
+            }
+        };
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+}
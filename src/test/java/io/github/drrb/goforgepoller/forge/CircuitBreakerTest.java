@@ -0,0 +1,143 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Clock;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.github.drrb.goforgepoller.forge.CircuitBreaker.State.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CircuitBreakerTest {
+
+    private long now;
+    private Clock clock;
+    private CircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return now;
+            }
+        };
+        circuitBreaker = new CircuitBreaker("http://forge.example.com", clock, 10, 50, 1000);
+    }
+
+    @Test
+    public void shouldStayClosedWhileMostRequestsWork() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.succeeded();
+            circuitBreaker.failed();
+            circuitBreaker.succeeded();
+        }
+
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+        assertThat(circuitBreaker.allowRequest(), is(true));
+    }
+
+    @Test
+    public void shouldWaitForAFewRequestsBeforeOpening() throws Exception {
+        failRequests(4);
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+
+        failRequests(1);
+        assertThat(circuitBreaker.getState(), is(OPEN));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+    }
+
+    @Test
+    public void shouldOpenWhenHalfOfRecentRequestsFail() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.succeeded();
+        }
+        failRequests(4);
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+
+        failRequests(1);
+        assertThat(circuitBreaker.getState(), is(OPEN));
+    }
+
+    @Test
+    public void shouldLetOneTrialRequestThroughAfterCoolDown() throws Exception {
+        failRequests(5);
+
+        now = 999;
+        assertThat(circuitBreaker.allowRequest(), is(false));
+        now = 1000;
+        assertThat(circuitBreaker.allowRequest(), is(true));
+        assertThat(circuitBreaker.getState(), is(HALF_OPEN));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+    }
+
+    @Test
+    public void shouldCloseIfTrialRequestWorks() throws Exception {
+        failRequests(5);
+        now = 1000;
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.succeeded();
+
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+        failRequests(4);
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+    }
+
+    @Test
+    public void shouldReopenIfTrialRequestFails() throws Exception {
+        failRequests(5);
+        now = 1000;
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.failed();
+
+        assertThat(circuitBreaker.getState(), is(OPEN));
+        now = 1999;
+        assertThat(circuitBreaker.allowRequest(), is(false));
+        now = 2000;
+        assertThat(circuitBreaker.allowRequest(), is(true));
+    }
+
+    @Test
+    public void shouldLetAnotherTrialRequestThroughIfTheLastOneNeverFinished() throws Exception {
+        failRequests(5);
+        now = 1000;
+        circuitBreaker.allowRequest();
+
+        now = 2000;
+        assertThat(circuitBreaker.allowRequest(), is(true));
+    }
+
+    @Test
+    public void shouldNeverOpenIfFailureRateIsZero() throws Exception {
+        circuitBreaker = new CircuitBreaker("http://forge.example.com", clock, 10, 0, 1000);
+
+        failRequests(20);
+
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+    }
+
+    private void failRequests(int count) {
+        for (int i = 0; i < count; i++) {
+            circuitBreaker.failed();
+        }
+    }
+}
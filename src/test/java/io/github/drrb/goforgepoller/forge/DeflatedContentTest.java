@@ -0,0 +1,65 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DeflatedContentTest {
+
+    private static final String CONTENT = "{\"puppetlabs/apache\":[{\"version\":\"1.0.1\"},{\"version\":\"1.0.0\"}]}";
+
+    @Test
+    public void shouldInflateZlibStreams() throws Exception {
+        assertThat(inflate(deflate(CONTENT, false)), is(CONTENT));
+    }
+
+    @Test
+    public void shouldInflateRawDeflateData() throws Exception {
+        assertThat(inflate(deflate(CONTENT, true)), is(CONTENT));
+    }
+
+    private static byte[] deflate(String content, boolean raw) throws IOException {
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(deflated, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflater.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return deflated.toByteArray();
+    }
+
+    private static String inflate(byte[] deflated) throws IOException {
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (InputStream content = DeflatedContent.inflate(new ByteArrayInputStream(deflated))) {
+            byte[] buffer = new byte[16];
+            for (int read = content.read(buffer); read != -1; read = content.read(buffer)) {
+                inflated.write(buffer, 0, read);
+            }
+        }
+        return new String(inflated.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.forge.api.ReleasePage;
+import io.github.drrb.test.NoLogging;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class DiskCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    @Rule
+    public final NoLogging noLogging = NoLogging.rule();
+
+    private File directory;
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new File(folder.getRoot(), "cache");
+        url = "http://forge.example.com/api/v1/releases.json?module=puppetlabs/apache";
+    }
+
+    @Test
+    public void storesReleasesAndValidatorsBetweenInstances() throws Exception {
+        ReleaseIndex releases = ReleaseIndex.builder()
+                .add(Version.of("1.0.0-rc1"), "/apache-1.0.0-rc1.tar.gz")
+                .add(Version.of("1.0.0"), null)
+                .build();
+        new DiskCache(directory, 10).store(url, new ValidatorCache.Entry("\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", new ReleasePage(releases, "/v3/releases?offset=100")));
+
+        ValidatorCache.Entry entry = new DiskCache(directory, 10).load(url);
+
+        assertThat(entry.getEtag(), is("\"v1\""));
+        assertThat(entry.getLastModified(), is("Wed, 21 Oct 2015 07:28:00 GMT"));
+        ReleasePage page = entry.getContent();
+        assertThat(page.getNext(), is("/v3/releases?offset=100"));
+        ReleaseIndex loadedReleases = page.getReleases();
+        assertThat(loadedReleases.size(), is(2));
+        assertThat(loadedReleases.latestBetween(Version.ZERO, Version.INFINITY).getVersion(), is(Version.of("1.0.0")));
+        assertThat(loadedReleases.latestBetween(Version.ZERO, Version.of("1.0.0")).getVersion(), is(Version.of("1.0.0-rc1")));
+        assertThat(loadedReleases.latestBetween(Version.ZERO, Version.of("1.0.0")).getFile(), is("/apache-1.0.0-rc1.tar.gz"));
+    }
+
+    @Test
+    public void returnsNothingForUncachedUrls() throws Exception {
+        assertThat(new DiskCache(directory, 10).load(url), is(nullValue()));
+    }
+
+    @Test
+    public void forgetsRemovedEntries() throws Exception {
+        DiskCache cache = new DiskCache(directory, 10);
+        cache.store(url, new ValidatorCache.Entry("\"v1\"", null, page()));
+
+        cache.remove(url);
+
+        assertThat(cache.load(url), is(nullValue()));
+    }
+
+    @Test
+    public void ignoresAndDeletesCorruptFiles() throws Exception {
+        DiskCache cache = new DiskCache(directory, 10);
+        cache.store(url, new ValidatorCache.Entry("\"v1\"", null, page()));
+        File file = directory.listFiles()[0];
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{0, 0, 0, 2, 0});
+        }
+
+        assertThat(cache.load(url), is(nullValue()));
+        assertThat(file.exists(), is(false));
+    }
+
+    @Test
+    public void evictsTheOldestEntriesWhenFull() throws Exception {
+        DiskCache cache = new DiskCache(directory, 2);
+        String first = "http://forge.example.com/api/v1/releases.json?module=puppetlabs/apache";
+        String second = "http://forge.example.com/api/v1/releases.json?module=puppetlabs/stdlib";
+        String third = "http://forge.example.com/api/v1/releases.json?module=puppetlabs/concat";
+        cache.store(first, new ValidatorCache.Entry("\"v1\"", null, page()));
+        cache.store(second, new ValidatorCache.Entry("\"v1\"", null, page()));
+        directory.listFiles()[0].setLastModified(0);
+        directory.listFiles()[1].setLastModified(0);
+        cache.store(third, new ValidatorCache.Entry("\"v1\"", null, page()));
+
+        assertThat(directory.listFiles().length, is(2));
+        assertThat(cache.load(third).getEtag(), is("\"v1\""));
+    }
+
+    @Test
+    public void doesNothingWhenDisabled() throws Exception {
+        DiskCache cache = DiskCache.disabled();
+        cache.store(url, new ValidatorCache.Entry("\"v1\"", null, page()));
+
+        assertThat(cache.load(url), is(nullValue()));
+    }
+
+    private static ReleasePage page() {
+        return new ReleasePage(ReleaseIndex.builder().build(), null);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class InFlightRequestsTest {
+
+    private InFlightRequests inFlightRequests;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        inFlightRequests = new InFlightRequests();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @Test
+    public void concurrentCallersShareOneRequest() throws Exception {
+        final CountDownLatch requestStarted = new CountDownLatch(1);
+        final CountDownLatch requestCanFinish = new CountDownLatch(1);
+        final AtomicInteger requestCount = new AtomicInteger();
+        final Callable<String> request = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                requestCount.incrementAndGet();
+                requestStarted.countDown();
+                requestCanFinish.await();
+                return "result";
+            }
+        };
+
+        Future<String> firstCaller = executor.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return inFlightRequests.execute("puppetlabs/apache", request);
+            }
+        });
+        requestStarted.await();
+        Future<String> secondCaller = executor.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return inFlightRequests.execute("puppetlabs/apache", request);
+            }
+        });
+        Thread.sleep(100);
+        requestCanFinish.countDown();
+
+        assertThat(firstCaller.get(1, TimeUnit.SECONDS), is("result"));
+        assertThat(secondCaller.get(1, TimeUnit.SECONDS), is("result"));
+        assertThat(requestCount.get(), is(1));
+    }
+
+    @Test
+    public void sequentialCallersMakeSeparateRequests() throws Exception {
+        final AtomicInteger requestCount = new AtomicInteger();
+        Callable<Integer> request = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return requestCount.incrementAndGet();
+            }
+        };
+
+        assertThat(inFlightRequests.execute("puppetlabs/apache", request), is(1));
+        assertThat(inFlightRequests.execute("puppetlabs/apache", request), is(2));
+    }
+
+    @Test
+    public void failuresArePassedToTheCaller() throws Exception {
+        try {
+            inFlightRequests.execute("puppetlabs/apache", new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw new Forge.ModuleNotFound("Not found");
+                }
+            });
+            fail("Expected an exception");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(Forge.ModuleNotFound.class)));
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.Test;
 import static io.github.drrb.goforgepoller.ForgePollerPluginConfig.*;
 import static io.github.drrb.goforgepoller.util.PropertyBuilder.property;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 
 public class ModuleSpecTest {
@@ -81,4 +82,14 @@ public class ModuleSpecTest {
         assertThat(moduleSpec.getLowerVersionBound(), is(Version.ZERO));
         assertThat(moduleSpec.getUpperVersionBound(), is(Version.INFINITY));
     }
+
+    @Test
+    public void specsWithTheSameModuleAndBoundsAreEqual() throws Exception {
+        ModuleSpec moduleSpec = ModuleSpec.of("puppetlabs/apache").withVersionLessThan(Version.of("2.0.0"));
+
+        assertThat(moduleSpec, is(ModuleSpec.of("puppetlabs/apache").withVersionLessThan(Version.of("2.0.0"))));
+        assertThat(moduleSpec.hashCode(), is(ModuleSpec.of("puppetlabs/apache").withVersionLessThan(Version.of("2.0.0")).hashCode()));
+        assertThat(moduleSpec, is(not(ModuleSpec.of("puppetlabs/apache"))));
+        assertThat(moduleSpec, is(not(ModuleSpec.of("puppetlabs/stdlib").withVersionLessThan(Version.of("2.0.0")))));
+    }
 }
@@ -0,0 +1,62 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Clock;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PingCacheTest {
+
+    private long now;
+    private Clock clock;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void shouldRememberAnswersUntilTheyExpire() throws Exception {
+        PingCache pingCache = new PingCache(clock, 1000);
+        pingCache.answered("http://forge.example.com");
+
+        now = 999;
+        assertThat(pingCache.recentlyAnswered("http://forge.example.com"), is(true));
+        assertThat(pingCache.recentlyAnswered("http://forge.example.com/puppetlabs/apache.json"), is(false));
+        now = 1000;
+        assertThat(pingCache.recentlyAnswered("http://forge.example.com"), is(false));
+    }
+
+    @Test
+    public void shouldRememberNothingIfTtlIsZero() throws Exception {
+        PingCache pingCache = new PingCache(clock, 0);
+        pingCache.answered("http://forge.example.com");
+
+        assertThat(pingCache.recentlyAnswered("http://forge.example.com"), is(false));
+    }
+}
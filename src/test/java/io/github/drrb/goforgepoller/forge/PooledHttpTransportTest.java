@@ -0,0 +1,222 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
+import io.github.drrb.goforgepoller.metrics.RequestMetrics;
+import io.github.drrb.goforgepoller.metrics.RequestTimer;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PooledHttpTransportTest {
+
+    @Test
+    public void shouldLimitConnections() throws Exception {
+        ApacheHttpTransport transport = PooledHttpTransport.create(10, 2, 30);
+        HttpParams params = transport.getHttpClient().getParams();
+
+        assertThat(ConnManagerParams.getMaxTotalConnections(params), is(10));
+        assertThat(ConnManagerParams.getMaxConnectionsPerRoute(params).getMaxForRoute(new HttpRoute(new HttpHost("forge.example.com"))), is(2));
+    }
+
+    @Test
+    public void shouldReuseConnections() throws Exception {
+        final Set<Integer> clientPorts = newConcurrentSet();
+        HttpServer server = startServer(new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                respond(exchange);
+            }
+        });
+        ApacheHttpTransport transport = PooledHttpTransport.create(10, 2, 30);
+        try {
+            for (int i = 0; i < 5; i++) {
+                get(transport, server);
+            }
+
+            assertThat(clientPorts.size(), is(1));
+        } finally {
+            transport.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldOpenNoMoreThanTheMaximumConnectionsPerHost() throws Exception {
+        final Set<Integer> clientPorts = newConcurrentSet();
+        final AtomicInteger concurrentRequests = new AtomicInteger();
+        final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+        final HttpServer server = startServer(new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                int concurrent = concurrentRequests.incrementAndGet();
+                int max;
+                while (concurrent > (max = maxConcurrentRequests.get()) && !maxConcurrentRequests.compareAndSet(max, concurrent)) {
+                    //Someone else raised the maximum, so check again
+                }
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrentRequests.decrementAndGet();
+                respond(exchange);
+            }
+        });
+        final ApacheHttpTransport transport = PooledHttpTransport.create(10, 2, 30);
+        ExecutorService clients = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                responses.add(clients.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return get(transport, server);
+                    }
+                }));
+            }
+            for (Future<Integer> response : responses) {
+                assertThat(response.get(10, TimeUnit.SECONDS), is(200));
+            }
+
+            assertThat(maxConcurrentRequests.get(), is(2));
+            assertThat(clientPorts.size(), is(2));
+        } finally {
+            clients.shutdownNow();
+            transport.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldCheckPooledConnectionsBeforeReusingThem() throws Exception {
+        ApacheHttpTransport transport = PooledHttpTransport.create(10, 2, 30);
+
+        assertThat(HttpConnectionParams.isStaleCheckingEnabled(transport.getHttpClient().getParams()), is(true));
+    }
+
+    @Test
+    public void shouldCountBytesReceivedBeforeDecompression() throws Exception {
+        StringBuilder releases = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            releases.append("{\"version\":\"1.0.").append(i).append("\"},");
+        }
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(releases.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        final byte[] body = gzipped.toByteArray();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream response = exchange.getResponseBody()) {
+                    response.write(body);
+                }
+            }
+        });
+        server.start();
+        try {
+            PluginMetrics metrics = new PluginMetrics();
+            ApacheHttpTransport transport = PooledHttpTransport.create(10, 2, 30);
+            String url = "http://localhost:" + server.getAddress().getPort() + "/";
+
+            RequestTimer timer = metrics.startRequest(url, "/");
+            HttpResponse response = transport.createRequestFactory().buildGetRequest(new GenericUrl(url)).execute();
+            timer.responseReceived(response.getStatusCode());
+            long decompressedBytes = 0;
+            try (InputStream content = response.getContent()) {
+                while (content.read() != -1) {
+                    decompressedBytes++;
+                }
+            }
+            timer.finish();
+
+            RequestMetrics requests = metrics.forRequests(url, "/");
+            assertThat(decompressedBytes, is((long) releases.length()));
+            assertThat(requests.getBytesReceived(), is((long) body.length));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer startServer(HttpHandler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", handler);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream response = exchange.getResponseBody()) {
+            response.write(body);
+        }
+    }
+
+    private static int get(ApacheHttpTransport transport, HttpServer server) throws IOException {
+        HttpResponse response = transport.createRequestFactory().buildGetRequest(new GenericUrl("http://localhost:" + server.getAddress().getPort() + "/")).execute();
+        try {
+            return response.getStatusCode();
+        } finally {
+            response.ignore();
+        }
+    }
+
+    private static Set<Integer> newConcurrentSet() {
+        return Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.util.Clock;
+import io.github.drrb.test.NoLogging;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PrefetcherTest {
+
+    @Rule
+    public final NoLogging noLogging = NoLogging.rule();
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+    @Mock
+    private Forge forge;
+    @Mock
+    private Forge mirror;
+    @Mock
+    private Random random;
+    private long now;
+    private Prefetcher prefetcher;
+
+    @Before
+    public void setUp() throws Exception {
+        when(forge.getKey()).thenReturn("http://forge.example.com V3 UNORDERED");
+        when(mirror.getKey()).thenReturn("http://mirror.example.com V3 UNORDERED");
+        when(random.nextDouble()).thenReturn(0.5);
+        prefetcher = new Prefetcher(60000, scheduler, new Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return now;
+            }
+        }, random);
+    }
+
+    @Test
+    public void shouldScheduleRefreshWithJitterWhenFirstModuleIsPolled() throws Exception {
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/apache"));
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/stdlib"));
+
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(52500L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldDoNothingWhenDisabled() throws Exception {
+        prefetcher = new Prefetcher(0, scheduler, Clock.SYSTEM, random);
+
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/apache"));
+        prefetcher.refresh();
+
+        verifyZeroInteractions(scheduler);
+        verify(forge, never()).prefetch(anyCollectionOf(ModuleSpec.class), anyLong());
+    }
+
+    @Test
+    public void shouldPrefetchPolledModulesOfEachForge() throws Exception {
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/apache"));
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/stdlib"));
+        prefetcher.polled(mirror, ModuleSpec.of("puppetlabs/concat"));
+
+        prefetcher.refresh();
+
+        assertThat(prefetched(forge), hasItems(ModuleSpec.of("puppetlabs/apache"), ModuleSpec.of("puppetlabs/stdlib")));
+        assertThat(prefetched(mirror), hasItems(ModuleSpec.of("puppetlabs/concat")));
+    }
+
+    @Test
+    public void shouldStopPrefetchingModulesThatArentPolledAnyMore() throws Exception {
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/apache"));
+        now = TimeUnit.HOURS.toMillis(2);
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/stdlib"));
+
+        prefetcher.refresh();
+
+        assertThat(prefetched(forge), hasItem(ModuleSpec.of("puppetlabs/stdlib")));
+        assertThat(prefetched(forge), not(hasItem(ModuleSpec.of("puppetlabs/apache"))));
+    }
+
+    @Test
+    public void shouldKeepRefreshingAfterARefreshFails() throws Exception {
+        doThrow(new IllegalStateException("Oops")).when(forge).prefetch(anyCollectionOf(ModuleSpec.class), anyLong());
+        prefetcher.polled(forge, ModuleSpec.of("puppetlabs/apache"));
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(refresh.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        refresh.getValue().run();
+
+        verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<ModuleSpec> prefetched(Forge forge) {
+        ArgumentCaptor<Collection> modules = ArgumentCaptor.forClass(Collection.class);
+        verify(forge).prefetch(modules.capture(), eq(75000L));
+        return modules.getValue();
+    }
+}
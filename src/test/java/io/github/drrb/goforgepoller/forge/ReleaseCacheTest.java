@@ -0,0 +1,105 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.forge.api.ReleasePage;
+import io.github.drrb.goforgepoller.util.Clock;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ReleaseCacheTest {
+
+    private long now;
+    private ReleaseCache cache;
+    private String forgeKey;
+    private ReleasePage releases;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ReleaseCache(new Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return now;
+            }
+        }, 2);
+        forgeKey = "http://forge.example.com V1 UNORDERED";
+        releases = new ReleasePage(ReleaseIndex.builder().build(), null);
+    }
+
+    @Test
+    public void shouldReturnReleasesUntilTheyExpire() throws Exception {
+        cache.put(forgeKey, "puppetlabs/apache", releases, 1000, 0);
+
+        now = 999;
+        assertThat(cache.get(forgeKey, "puppetlabs/apache"), is(sameInstance(releases)));
+        now = 1000;
+        assertThat(cache.get(forgeKey, "puppetlabs/apache"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldKeepForgesSeparate() throws Exception {
+        cache.put(forgeKey, "puppetlabs/apache", releases, 1000, 0);
+
+        assertThat(cache.get("http://mirror.example.com V1 UNORDERED", "puppetlabs/apache"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedModules() throws Exception {
+        cache.put(forgeKey, "puppetlabs/apache", releases, 1000, 0);
+        cache.put(forgeKey, "puppetlabs/stdlib", releases, 1000, 0);
+        cache.get(forgeKey, "puppetlabs/apache");
+        cache.put(forgeKey, "puppetlabs/concat", releases, 1000, 0);
+
+        assertThat(cache.get(forgeKey, "puppetlabs/apache"), is(sameInstance(releases)));
+        assertThat(cache.get(forgeKey, "puppetlabs/stdlib"), is(nullValue()));
+        assertThat(cache.get(forgeKey, "puppetlabs/concat"), is(sameInstance(releases)));
+    }
+
+    @Test
+    public void shouldReturnStaleReleasesWithinTheStalenessWindow() throws Exception {
+        cache = new ReleaseCache(new Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return now;
+            }
+        }, 2);
+        cache.put(forgeKey, "puppetlabs/apache", releases, 1000, 500);
+
+        now = 999;
+        assertThat(cache.getStale(forgeKey, "puppetlabs/apache"), is(nullValue()));
+        now = 1000;
+        assertThat(cache.get(forgeKey, "puppetlabs/apache"), is(nullValue()));
+        assertThat(cache.getStale(forgeKey, "puppetlabs/apache"), is(sameInstance(releases)));
+        now = 1499;
+        assertThat(cache.getStale(forgeKey, "puppetlabs/apache"), is(sameInstance(releases)));
+        now = 1500;
+        assertThat(cache.getStale(forgeKey, "puppetlabs/apache"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotReturnStaleReleasesWithoutAStalenessWindow() throws Exception {
+        cache.put(forgeKey, "puppetlabs/apache", releases, 1000, 0);
+
+        now = 1000;
+        assertThat(cache.getStale(forgeKey, "puppetlabs/apache"), is(nullValue()));
+    }
+}
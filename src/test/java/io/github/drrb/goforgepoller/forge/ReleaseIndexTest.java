@@ -0,0 +1,77 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.forge.api.ModuleRelease;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ReleaseIndexTest {
+
+    private ReleaseIndex releases;
+
+    @Before
+    public void setUp() throws Exception {
+        releases = ReleaseIndex.builder()
+                .add(Version.of("1.0.10"), "/apache-1.0.10.tar.gz")
+                .add(Version.of("0.11.0"), "/apache-0.11.0.tar.gz")
+                .add(Version.of("1.0.1"), "/apache-1.0.1.tar.gz")
+                .add(Version.of("1.0.0-beta"), "/apache-1.0.0-beta.tar.gz")
+                .build();
+    }
+
+    @Test
+    public void shouldFindLatestRelease() throws Exception {
+        ModuleRelease release = releases.latestBetween(Version.ZERO, Version.INFINITY);
+
+        assertThat(release.getVersion(), is(Version.of("1.0.10")));
+        assertThat(release.getFile(), is("/apache-1.0.10.tar.gz"));
+    }
+
+    @Test
+    public void shouldExcludeUpperBound() throws Exception {
+        assertThat(releases.latestBetween(Version.ZERO, Version.of("1.0.10")).getVersion(), is(Version.of("1.0.1")));
+        assertThat(releases.latestBetween(Version.ZERO, Version.of("1.0.0")).getVersion(), is(Version.of("1.0.0-beta")));
+    }
+
+    @Test
+    public void shouldIncludeLowerBound() throws Exception {
+        assertThat(releases.latestBetween(Version.of("1.0.1"), Version.of("1.0.2")).getVersion(), is(Version.of("1.0.1")));
+    }
+
+    @Test
+    public void shouldReturnNullIfNoReleaseInRange() throws Exception {
+        assertThat(releases.latestBetween(Version.of("1.1.0"), Version.INFINITY), is(nullValue()));
+        assertThat(releases.latestBetween(Version.ZERO, Version.of("0.1.0")), is(nullValue()));
+        assertThat(ReleaseIndex.builder().build().latestBetween(Version.ZERO, Version.INFINITY), is(nullValue()));
+    }
+
+    @Test
+    public void shouldKeepLastReleaseListedForAVersion() throws Exception {
+        ReleaseIndex releases = ReleaseIndex.builder()
+                .add(Version.of("1.0.0"), "/first.tar.gz")
+                .add(Version.of("1.0.0"), "/second.tar.gz")
+                .build();
+
+        assertThat(releases.size(), is(1));
+        assertThat(releases.latestBetween(Version.ZERO, Version.INFINITY).getFile(), is("/second.tar.gz"));
+    }
+}
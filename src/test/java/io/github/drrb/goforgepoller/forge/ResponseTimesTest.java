@@ -0,0 +1,76 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ResponseTimesTest {
+
+    private ResponseTimes responseTimes;
+
+    @Before
+    public void setUp() throws Exception {
+        responseTimes = new ResponseTimes(4, 2);
+    }
+
+    @Test
+    public void shouldHaveNoPercentileUntilEnoughResponsesAreRecorded() throws Exception {
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(-1.0));
+        record("http://forge.example.com", 100);
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(-1.0));
+        record("http://forge.example.com", 100);
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(100.0));
+    }
+
+    @Test
+    public void shouldKeepForgesSeparate() throws Exception {
+        record("http://forge.example.com", 100, 100);
+        record("http://other.example.com", 500, 500);
+
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(100.0));
+        assertThat(responseTimes.getPercentileMillis("http://other.example.com", 99), is(500.0));
+    }
+
+    @Test
+    public void shouldForgetOldWindows() throws Exception {
+        record("http://forge.example.com", 500, 500, 500, 500);
+        record("http://forge.example.com", 100, 100, 100, 100);
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(100.0));
+    }
+
+    @Test
+    public void shouldUseTheSlowerOfTheLastWindowAndTheCurrentOne() throws Exception {
+        record("http://forge.example.com", 100, 100, 100, 100);
+        record("http://forge.example.com", 2000);
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(100.0));
+        record("http://forge.example.com", 2000);
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(2000.0));
+    }
+
+    private void record(String forge, long... millis) {
+        for (long responseMillis : millis) {
+            responseTimes.record(forge, TimeUnit.MILLISECONDS.toNanos(responseMillis));
+        }
+    }
+}
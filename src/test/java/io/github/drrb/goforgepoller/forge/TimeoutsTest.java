@@ -0,0 +1,103 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TimeoutsTest {
+
+    private ResponseTimes responseTimes;
+
+    @Before
+    public void setUp() throws Exception {
+        responseTimes = new ResponseTimes(100, 2);
+    }
+
+    @Test
+    public void shouldDefaultToTwentySeconds() throws Exception {
+        Timeouts timeouts = Timeouts.forSettings("", "", "", responseTimes);
+
+        assertThat(timeouts.getConnectTimeoutMillis(), is(20000));
+        assertThat(timeouts.getReadTimeoutMillis("http://forge.example.com"), is(20000));
+    }
+
+    @Test
+    public void shouldUseConfiguredTimeouts() throws Exception {
+        Timeouts timeouts = Timeouts.forSettings("5", "10", "false", responseTimes);
+
+        assertThat(timeouts.getConnectTimeoutMillis(), is(5000));
+        assertThat(timeouts.getReadTimeoutMillis("http://forge.example.com"), is(10000));
+    }
+
+    @Test
+    public void shouldNotRecordResponseTimesUnlessAdaptive() throws Exception {
+        Timeouts timeouts = Timeouts.forSettings("", "", "false", responseTimes);
+        timeouts.responseReceived("http://forge.example.com", TimeUnit.MILLISECONDS.toNanos(500));
+        timeouts.responseReceived("http://forge.example.com", TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(responseTimes.getPercentileMillis("http://forge.example.com", 99), is(-1.0));
+    }
+
+    @Test
+    public void shouldUseConfiguredReadTimeoutUntilForgeHasResponded() throws Exception {
+        Timeouts timeouts = Timeouts.forSettings("", "10", "true", responseTimes);
+
+        assertThat(timeouts.getReadTimeoutMillis("http://forge.example.com"), is(10000));
+    }
+
+    @Test
+    public void shouldWaitAFewTimesAsLongAsForgeUsuallyTakesToRespond() throws Exception {
+        Timeouts timeouts = Timeouts.forSettings("", "10", "true", responseTimes);
+        respond(timeouts, "http://forge.example.com", 500, 500);
+
+        assertThat(timeouts.getReadTimeoutMillis("http://forge.example.com"), is(2000));
+        assertThat(timeouts.getReadTimeoutMillis("http://other.example.com"), is(10000));
+    }
+
+    @Test
+    public void shouldKeepAdaptiveReadTimeoutBetweenOneSecondAndTheConfiguredTimeout() throws Exception {
+        Timeouts timeouts = Timeouts.forSettings("", "10", "true", responseTimes);
+        respond(timeouts, "http://fast.example.com", 10, 10);
+        respond(timeouts, "http://slow.example.com", 5000, 5000);
+
+        assertThat(timeouts.getReadTimeoutMillis("http://fast.example.com"), is(1000));
+        assertThat(timeouts.getReadTimeoutMillis("http://slow.example.com"), is(10000));
+    }
+
+    @Test
+    public void shouldValidateSettings() throws Exception {
+        assertThat(Timeouts.isValidSeconds(""), is(true));
+        assertThat(Timeouts.isValidSeconds("30"), is(true));
+        assertThat(Timeouts.isValidSeconds("0"), is(false));
+        assertThat(Timeouts.isValidSeconds("-1"), is(false));
+        assertThat(Timeouts.isValidAdaptiveSetting("true"), is(true));
+        assertThat(Timeouts.isValidAdaptiveSetting("maybe"), is(false));
+    }
+
+    private void respond(Timeouts timeouts, String forge, long... millis) {
+        for (long responseMillis : millis) {
+            timeouts.responseReceived(forge, TimeUnit.MILLISECONDS.toNanos(responseMillis));
+        }
+    }
+}
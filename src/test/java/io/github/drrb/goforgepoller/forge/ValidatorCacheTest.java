@@ -0,0 +1,89 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge;
+
+import io.github.drrb.goforgepoller.forge.api.ReleasePage;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ValidatorCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private ValidatorCache cache;
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ValidatorCache();
+        url = "http://forge.example.com/api/v1/releases.json?module=puppetlabs/apache";
+    }
+
+    @Test
+    public void shouldRememberValidatorsAndContent() throws Exception {
+        cache.put(url, "\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", "content");
+
+        ValidatorCache.Entry entry = cache.get(url);
+        assertThat(entry.getEtag(), is("\"v1\""));
+        assertThat(entry.getLastModified(), is("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertThat(entry.<String>getContent(), is("content"));
+    }
+
+    @Test
+    public void shouldLoadEntriesFromDiskWhenNotInMemory() throws Exception {
+        File directory = folder.newFolder();
+        new ValidatorCache(new DiskCache(directory, 10)).put(url, "\"v1\"", null, new ReleasePage(ReleaseIndex.builder().build(), null));
+
+        ValidatorCache.Entry entry = new ValidatorCache(new DiskCache(directory, 10)).get(url);
+
+        assertThat(entry.getEtag(), is("\"v1\""));
+    }
+
+    @Test
+    public void shouldForgetLeastRecentlyUsedResponsesWhenFull() throws Exception {
+        cache = new ValidatorCache(DiskCache.disabled(), 2);
+        String otherUrl = "http://forge.example.com/api/v1/releases.json?module=puppetlabs/stdlib";
+        String thirdUrl = "http://forge.example.com/api/v1/releases.json?module=puppetlabs/concat";
+        cache.put(url, "\"v1\"", null, "apache");
+        cache.put(otherUrl, "\"v1\"", null, "stdlib");
+        cache.get(url);
+
+        cache.put(thirdUrl, "\"v1\"", null, "concat");
+
+        assertThat(cache.get(url).<String>getContent(), is("apache"));
+        assertThat(cache.get(otherUrl), is(nullValue()));
+        assertThat(cache.get(thirdUrl).<String>getContent(), is("concat"));
+    }
+
+    @Test
+    public void shouldForgetResponsesWithoutValidators() throws Exception {
+        cache.put(url, "\"v1\"", null, "old content");
+        cache.put(url, null, null, "new content");
+
+        assertThat(cache.get(url), is(nullValue()));
+    }
+}
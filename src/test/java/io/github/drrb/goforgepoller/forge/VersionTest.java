@@ -73,6 +73,21 @@ public class VersionTest {
         assertThat(Version.of("1.xxxx"), is(lessThan(Version.of("1.0.0"))));
     }
 
+    @Test
+    public void suffixedPartsComeBeforeNumericPartsAnywhereInTheVersion() throws Exception {
+        assertThat(Version.of("1.beta.2"), is(lessThan(Version.of("1.0.1"))));
+        assertThat(Version.of("1.0.1"), is(greaterThan(Version.of("1.beta.2"))));
+        assertThat(Version.of("2.0-rc1"), is(greaterThan(Version.of("1.9.9"))));
+    }
+
+    @Test
+    public void versionsWithSuffixesAreOrderedNumericallyUpToTheSuffix() throws Exception {
+        assertThat(Version.of("1.10.0-rc1"), is(greaterThan(Version.of("1.2.0-rc1"))));
+        assertThat(Version.of("1.0.0-rc1"), is(equalTo(Version.of("1.0.0-rc1"))));
+        assertThat(Version.of("1.0.0-rc1").compareTo(Version.of("1.0.0-rc1")), is(0));
+        assertThat(Version.of("1.0.0-rc1.1"), is(greaterThan(Version.of("1.0.0-rc1"))));
+    }
+
     @Test
     public void throwsAnExceptionIfNumberIsCompleteGarbage() throws Exception {
         try {
@@ -81,4 +96,33 @@ public class VersionTest {
         } catch (RuntimeException e) {
         }
     }
+
+    @Test
+    public void validatesVersionNumbers() throws Exception {
+        assertThat(Version.isValid("1.0.0"), is(true));
+        assertThat(Version.isValid("1.0.0-rc1"), is(true));
+        assertThat(Version.isValid("1-2.x"), is(true));
+        assertThat(Version.isValid(""), is(false));
+        assertThat(Version.isValid("v1.0.0"), is(false));
+        assertThat(Version.isValid("1a.0"), is(false));
+        assertThat(Version.isValid("1..0"), is(false));
+        assertThat(Version.isValid("1.-0"), is(false));
+        assertThat(Version.isValid("1.0."), is(false));
+        assertThat(Version.isValid("1.0 "), is(false));
+    }
+
+    @Test
+    public void suffixesAreRenderedAsPreReleases() throws Exception {
+        assertThat(Version.of("1.0.0-rc-1").toString(), is("1.0.0.pre.rc.pre.1"));
+    }
+
+    @Test
+    public void repeatedVersionNumbersShareAnInstance() throws Exception {
+        assertThat(Version.of("1.2.3"), is(sameInstance(Version.of("1.2.3"))));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void throwsAnExceptionIfComponentIsTooLarge() throws Exception {
+        Version.of("1.99999999999");
+    }
 }
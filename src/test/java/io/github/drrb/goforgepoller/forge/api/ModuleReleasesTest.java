@@ -0,0 +1,99 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge.api;
+
+import com.google.api.client.json.jackson2.JacksonFactory;
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
+import io.github.drrb.goforgepoller.forge.Version;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ModuleReleasesTest {
+
+    @Test
+    public void shouldReadVersionAndFileOfEachRelease() throws Exception {
+        ReleaseIndex releases = read("{\"puppetlabs/apache\":[{\"version\":\"1.0.1\",\"file\":\"/apache-1.0.1.tar.gz\"},{\"version\":\"1.0.0\",\"file\":\"/apache-1.0.0.tar.gz\"}]}");
+
+        assertThat(releases.size(), is(2));
+        assertThat(latest(releases).getVersion(), is(Version.of("1.0.1")));
+        assertThat(latest(releases).getFile(), is("/apache-1.0.1.tar.gz"));
+        assertThat(releases.latestBetween(Version.ZERO, Version.of("1.0.1")).getFile(), is("/apache-1.0.0.tar.gz"));
+    }
+
+    @Test
+    public void shouldSkipReleasesOfOtherModules() throws Exception {
+        ReleaseIndex releases = read("{\"puppetlabs/stdlib\":[{\"version\":\"4.1.0\"}],\"puppetlabs/apache\":[{\"version\":\"1.0.0\"}],\"puppetlabs/concat\":[{\"version\":\"1.1.0\"}]}");
+
+        assertThat(releases.size(), is(1));
+        assertThat(latest(releases).getVersion(), is(Version.of("1.0.0")));
+    }
+
+    @Test
+    public void shouldSkipOtherFieldsOfReleases() throws Exception {
+        ReleaseIndex releases = read("{\"puppetlabs/apache\":[{\"dependencies\":[[\"puppetlabs/stdlib\",\">= 2.4.0\"]],\"metadata\":{\"version\":\"x\"},\"version\":\"1.0.0\"}]}");
+
+        assertThat(releases.size(), is(1));
+        assertThat(latest(releases).getVersion(), is(Version.of("1.0.0")));
+        assertThat(latest(releases).getFile(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldIgnoreReleasesWithoutAVersion() throws Exception {
+        ReleaseIndex releases = read("{\"puppetlabs/apache\":[{\"file\":\"/apache.tar.gz\"},{\"version\":\"1.0.0\"}]}");
+
+        assertThat(releases.size(), is(1));
+    }
+
+    @Test
+    public void shouldReturnNoReleasesIfModuleIsMissing() throws Exception {
+        assertThat(read("{\"puppetlabs/stdlib\":[{\"version\":\"4.1.0\"}]}").size(), is(0));
+    }
+
+    @Test
+    public void shouldReadReleasesFromARealisticForgeResponse() throws Exception {
+        InputStream payload = getClass().getResourceAsStream("/forge/v1/releases/puppetlabs-puppetdb.json");
+        ReleaseIndex releases;
+        try {
+            releases = ModuleReleases.read(new JacksonFactory().createJsonParser(payload, StandardCharsets.UTF_8), "puppetlabs/puppetdb");
+        } finally {
+            payload.close();
+        }
+
+        assertThat(releases.size(), is(150));
+        assertThat(latest(releases).getFile(), is("/system/releases/p/puppetlabs/puppetlabs-puppetdb-6.0.0.tar.gz"));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectResponsesThatArentObjects() throws Exception {
+        read("[]");
+    }
+
+    private ReleaseIndex read(String json) throws IOException {
+        return ModuleReleases.read(new JacksonFactory().createJsonParser(json), "puppetlabs/apache");
+    }
+
+    private ModuleRelease latest(ReleaseIndex releases) {
+        return releases.latestBetween(Version.ZERO, Version.INFINITY);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge.api;
+
+import com.google.api.client.json.jackson2.JacksonFactory;
+import io.github.drrb.goforgepoller.forge.ReleaseIndex;
+import io.github.drrb.goforgepoller.forge.Version;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class PagedModulesTest {
+
+    @Test
+    public void shouldReadReleasesOfEachModule() throws Exception {
+        Map<String, ReleaseIndex> modules = read("{\"pagination\":{\"next\":null},\"results\":["
+                + "{\"releases\":[{\"version\":\"1.0.1\",\"file_uri\":\"/v3/files/apache-1.0.1.tar.gz\"},{\"version\":\"1.0.0\"}],\"slug\":\"puppetlabs-apache\"},"
+                + "{\"slug\":\"puppetlabs-stdlib\",\"releases\":[{\"version\":\"4.1.0\"}]}]}");
+
+        assertThat(modules.size(), is(2));
+        assertThat(modules.get("puppetlabs-apache").size(), is(2));
+        assertThat(latest(modules.get("puppetlabs-apache")).getFile(), is("/v3/files/apache-1.0.1.tar.gz"));
+        assertThat(latest(modules.get("puppetlabs-stdlib")).getVersion(), is(Version.of("4.1.0")));
+    }
+
+    @Test
+    public void shouldSkipOtherFieldsOfModules() throws Exception {
+        Map<String, ReleaseIndex> modules = read("{\"results\":[{\"slug\":\"puppetlabs-apache\",\"owner\":{\"slug\":\"puppetlabs\"},"
+                + "\"current_release\":{\"version\":\"9.9.9\",\"metadata\":{\"name\":\"x\"}},\"releases\":[{\"version\":\"1.0.0\",\"file_size\":1024}]}]}");
+
+        assertThat(modules.get("puppetlabs-apache").size(), is(1));
+        assertThat(latest(modules.get("puppetlabs-apache")).getVersion(), is(Version.of("1.0.0")));
+    }
+
+    @Test
+    public void shouldIgnoreModulesWithoutReleases() throws Exception {
+        assertThat(read("{\"results\":[{\"slug\":\"puppetlabs-apache\"}]}").isEmpty(), is(true));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectResponsesThatArentObjects() throws Exception {
+        read("[]");
+    }
+
+    private Map<String, ReleaseIndex> read(String json) throws IOException {
+        return PagedModules.read(new JacksonFactory().createJsonParser(json));
+    }
+
+    private ModuleRelease latest(ReleaseIndex releases) {
+        return releases.latestBetween(Version.ZERO, Version.INFINITY);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.forge.api;
+
+import com.google.api.client.json.jackson2.JacksonFactory;
+import io.github.drrb.goforgepoller.forge.Version;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class PagedReleasesTest {
+
+    @Test
+    public void shouldReadVersionAndFileOfEachRelease() throws Exception {
+        ReleasePage page = read("{\"pagination\":{\"limit\":2,\"next\":null},\"results\":[{\"version\":\"1.0.1\",\"file_uri\":\"/v3/files/apache-1.0.1.tar.gz\"},{\"version\":\"1.0.0\",\"file_uri\":\"/v3/files/apache-1.0.0.tar.gz\"}]}");
+
+        assertThat(page.getReleases().size(), is(2));
+        assertThat(latest(page).getVersion(), is(Version.of("1.0.1")));
+        assertThat(latest(page).getFile(), is("/v3/files/apache-1.0.1.tar.gz"));
+        assertThat(page.getNext(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldReadLinkToNextPage() throws Exception {
+        ReleasePage page = read("{\"results\":[],\"pagination\":{\"first\":\"/v3/releases?offset=0\",\"next\":\"/v3/releases?offset=20\",\"previous\":null}}");
+
+        assertThat(page.getNext(), is("/v3/releases?offset=20"));
+        assertThat(page.getReleases().size(), is(0));
+    }
+
+    @Test
+    public void shouldSkipOtherFieldsOfReleases() throws Exception {
+        ReleasePage page = read("{\"results\":[{\"module\":{\"name\":\"apache\",\"version\":\"x\"},\"metadata\":{\"dependencies\":[{\"version_requirement\":\">= 2.4.0\"}]},\"version\":\"1.0.0\",\"file_size\":1024}]}");
+
+        assertThat(page.getReleases().size(), is(1));
+        assertThat(latest(page).getVersion(), is(Version.of("1.0.0")));
+        assertThat(latest(page).getFile(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldIgnoreReleasesWithoutAVersion() throws Exception {
+        assertThat(read("{\"results\":[{\"file_uri\":\"/apache.tar.gz\"},{\"version\":\"1.0.0\"}]}").getReleases().size(), is(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectResponsesThatArentObjects() throws Exception {
+        read("[]");
+    }
+
+    private ReleasePage read(String json) throws IOException {
+        return PagedReleases.read(new JacksonFactory().createJsonParser(json));
+    }
+
+    private ModuleRelease latest(ReleasePage page) {
+        return page.getReleases().latestBetween(Version.ZERO, Version.INFINITY);
+    }
+}
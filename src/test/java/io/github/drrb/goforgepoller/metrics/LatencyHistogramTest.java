@@ -0,0 +1,78 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() throws Exception {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void isEmptyToStartWith() throws Exception {
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMeanMillis(), is(0.0));
+        assertThat(histogram.getPercentileMillis(99), is(0.0));
+    }
+
+    @Test
+    public void tracksCountMeanAndMax() throws Exception {
+        histogram.record(millis(10));
+        histogram.record(millis(30));
+
+        assertThat(histogram.getCount(), is(2L));
+        assertThat(histogram.getMeanMillis(), is(20.0));
+        assertThat(histogram.getMaxMillis(), is(30.0));
+    }
+
+    @Test
+    public void estimatesPercentilesFromBuckets() throws Exception {
+        for (int i = 0; i < 90; i++) {
+            histogram.record(millis(3));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(millis(150));
+        }
+
+        assertThat(histogram.getPercentileMillis(50), is(5.0));
+        assertThat(histogram.getPercentileMillis(90), is(5.0));
+        assertThat(histogram.getPercentileMillis(95), is(150.0));
+    }
+
+    @Test
+    public void handlesVerySlowCalls() throws Exception {
+        histogram.record(TimeUnit.HOURS.toNanos(2));
+
+        assertThat(histogram.getPercentileMillis(99), is((double) TimeUnit.HOURS.toMillis(2)));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PluginMetricsTest {
+
+    private MBeanServer mBeanServer;
+    private PluginMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        mBeanServer = MBeanServerFactory.newMBeanServer();
+        metrics = new PluginMetrics(mBeanServer, true);
+    }
+
+    @Test
+    public void sharesMetricsForTheSameEntryPoint() throws Exception {
+        assertThat(metrics.forEntryPoint("latestModificationSince"), is(sameInstance(metrics.forEntryPoint("latestModificationSince"))));
+    }
+
+    @Test
+    public void sharesMetricsForTheSameModule() throws Exception {
+        assertThat(metrics.forModule("http://forge.example.com", "puppetlabs/apache"), is(sameInstance(metrics.forModule("http://forge.example.com", "puppetlabs/apache"))));
+    }
+
+    @Test
+    public void publishesEntryPointMetricsToJmx() throws Exception {
+        metrics.forEntryPoint("latestModificationSince").recordCall(1000);
+
+        ObjectName name = new ObjectName("io.github.drrb.goforgepoller:type=EntryPoint,name=\"latestModificationSince\"");
+        assertThat(mBeanServer.getAttribute(name, "Calls"), is((Object) 1L));
+    }
+
+    @Test
+    public void publishesModuleMetricsToJmx() throws Exception {
+        metrics.forModule("http://forge.example.com", "puppetlabs/apache").record(Outcome.NO_CHANGE, 1000);
+
+        ObjectName name = new ObjectName("io.github.drrb.goforgepoller:type=Module,forge=\"http://forge.example.com\",name=\"puppetlabs/apache\"");
+        assertThat(mBeanServer.getAttribute(name, "NoChanges"), is((Object) 1L));
+    }
+
+    @Test
+    public void replacesMetricsPublishedByAPreviousInstance() throws Exception {
+        new PluginMetrics(mBeanServer, true).forEntryPoint("latestModificationSince").recordCall(1000);
+        metrics.forEntryPoint("latestModificationSince");
+
+        ObjectName name = new ObjectName("io.github.drrb.goforgepoller:type=EntryPoint,name=\"latestModificationSince\"");
+        assertThat(mBeanServer.getAttribute(name, "Calls"), is((Object) 0L));
+    }
+
+    @Test
+    public void unpublishesMetricsWhenClosed() throws Exception {
+        metrics.forEntryPoint("latestModificationSince");
+        metrics.forModule("http://forge.example.com", "puppetlabs/apache");
+
+        metrics.close();
+
+        assertThat(mBeanServer.queryNames(new ObjectName("io.github.drrb.goforgepoller:*"), null).isEmpty(), is(true));
+    }
+
+    @Test
+    public void logsOnlyOneSummaryAndStopsWhenClosed() throws Exception {
+        ScheduledFuture<?> firstSummary = metrics.logSummaryEvery(300);
+        ScheduledFuture<?> secondSummary = metrics.logSummaryEvery(300);
+
+        assertThat(firstSummary.isCancelled(), is(true));
+        assertThat(secondSummary.isCancelled(), is(false));
+
+        metrics.close();
+
+        assertThat(secondSummary.isCancelled(), is(true));
+    }
+
+    @Test
+    public void summarisesEntryPointsAndModules() throws Exception {
+        metrics.forEntryPoint("latestModificationSince").recordCall(1000);
+        metrics.forModule("http://forge.example.com", "puppetlabs/apache").record(Outcome.NEW_REVISION, 1000);
+
+        String summary = metrics.summary();
+
+        assertThat(summary, containsString("latestModificationSince: calls=1 errors=0"));
+        assertThat(summary, containsString("http://forge.example.com puppetlabs/apache: lookups=1 new=1 unchanged=0 notFound=0"));
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.github.drrb.test.Matchers.greaterThan;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RequestTimerTest {
+
+    private RequestMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        metrics = new RequestMetrics();
+    }
+
+    @Test
+    public void recordsEachPhaseOfARequest() throws Exception {
+        RequestTimer timer = RequestTimer.start(metrics);
+        Thread.sleep(5);
+        RequestTimer.connectionEstablished();
+        Thread.sleep(5);
+        timer.responseReceived(200);
+        timer.bytesRead(100);
+        timer.bytesRead(50);
+        Thread.sleep(5);
+        timer.finish();
+
+        assertThat(metrics.getRequests(), is(1L));
+        assertThat(metrics.getSuccessfulResponses(), is(1L));
+        assertThat(metrics.getBytesRead(), is(150L));
+        assertThat(metrics.getBytesReceived(), is(0L));
+        assertThat(metrics.getMeanConnectMillis(), is(greaterThan(4.0)));
+        assertThat(metrics.getMeanServerMillis(), is(greaterThan(4.0)));
+        assertThat(metrics.getMeanDownloadMillis(), is(greaterThan(4.0)));
+    }
+
+    @Test
+    public void recordsBytesReceivedBeforeDecompression() throws Exception {
+        RequestTimer timer = RequestTimer.start(metrics);
+        timer.responseReceived(200);
+        RequestTimer.bytesReceived(40);
+        timer.bytesRead(150);
+        timer.finish();
+        RequestTimer.bytesReceived(10);
+
+        assertThat(metrics.getBytesReceived(), is(40L));
+        assertThat(metrics.getBytesRead(), is(150L));
+    }
+
+    @Test
+    public void recordsRequestsThatGetNoResponseAsFailures() throws Exception {
+        RequestTimer.start(metrics).finish();
+
+        assertThat(metrics.getRequests(), is(1L));
+        assertThat(metrics.getFailures(), is(1L));
+    }
+
+    @Test
+    public void onlyMarksConnectionOfTheCurrentRequest() throws Exception {
+        RequestTimer.start(metrics).finish();
+        RequestTimer.connectionEstablished();
+
+        RequestTimer timer = RequestTimer.start(metrics);
+        timer.responseReceived(304);
+        timer.finish();
+
+        assertThat(metrics.getNotModifiedResponses(), is(1L));
+        assertThat(metrics.getMeanConnectMillis(), is(0.0));
+    }
+
+    @Test
+    public void recordsNothingWhenDisabled() throws Exception {
+        RequestTimer timer = new PluginMetrics(null, false).startRequest("http://forge.example.com", "/");
+        timer.responseReceived(200);
+        timer.finish();
+
+        assertThat(timer, is(RequestTimer.DISABLED));
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Go Puppet Forge Poller
+ * Copyright (C) 2014 drrb
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Go Puppet Forge Poller. If not, see <http://www.gnu.org/licenses />.
+ */
+package io.github.drrb.goforgepoller.util;
+
+import com.thoughtworks.go.plugin.api.config.Property;
+import com.thoughtworks.go.plugin.api.material.packagerepository.PackageConfiguration;
+import com.thoughtworks.go.plugin.api.material.packagerepository.PackageMaterialProperty;
+import com.thoughtworks.go.plugin.api.material.packagerepository.PackageRevision;
+import com.thoughtworks.go.plugin.api.material.packagerepository.RepositoryConfiguration;
+import com.thoughtworks.go.plugin.api.response.Result;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.LinkedList;
+
+import static io.github.drrb.goforgepoller.util.PropertyBuilder.property;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+public class DebugRenderingTest {
+
+    @Test
+    public void rendersSimpleValuesAsStrings() throws Exception {
+        assertThat(DebugRendering.render("puppetlabs/apache"), is("puppetlabs/apache"));
+        assertThat(DebugRendering.render(1), is("1"));
+        assertThat(DebugRendering.render(null), is("null"));
+    }
+
+    @Test
+    public void rendersConfigurationsAsProperties() throws Exception {
+        PackageConfiguration packageConfig = new PackageConfiguration();
+        packageConfig.add(property("MODULE_NAME", "puppetlabs/apache"));
+        packageConfig.add(property("LOWER_VERSION_BOUND_INCLUSIVE", "1.0.0"));
+
+        assertThat(DebugRendering.render(packageConfig), is("PackageConfiguration{MODULE_NAME=puppetlabs/apache, LOWER_VERSION_BOUND_INCLUSIVE=1.0.0}"));
+    }
+
+    @Test
+    public void hidesSecureConfigurationValues() throws Exception {
+        RepositoryConfiguration repoConfig = new RepositoryConfiguration();
+        repoConfig.add(new PackageMaterialProperty("PASSWORD", "secret").with(Property.SECURE, true));
+
+        assertThat(DebugRendering.render(repoConfig), is("RepositoryConfiguration{PASSWORD=****}"));
+    }
+
+    @Test
+    public void rendersPackageRevisions() throws Exception {
+        PackageRevision revision = new PackageRevision("1.0.0", new Date(0), "forge");
+        revision.addData("VERSION", "1.0.0");
+
+        assertThat(DebugRendering.render(revision), startsWith("PackageRevision{revision=1.0.0, timestamp="));
+        assertThat(DebugRendering.render(revision).endsWith(", user=forge, data={VERSION=1.0.0}}"), is(true));
+    }
+
+    @Test
+    public void rendersResults() throws Exception {
+        assertThat(DebugRendering.render(new Result().withSuccessMessages("Found it.")), is("Result{successful=true, messages=[Found it.]}"));
+    }
+
+    @Test
+    public void rendersOtherObjectsAsXml() throws Exception {
+        assertThat(DebugRendering.render(new LinkedList<>(asList("a", "b"))), is("<linked-list>\n  <string>a</string>\n  <string>b</string>\n</linked-list>"));
+    }
+}
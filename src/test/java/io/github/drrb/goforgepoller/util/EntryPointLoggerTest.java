@@ -21,6 +21,8 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.matcher.Matchers;
+import com.google.inject.util.Providers;
+import io.github.drrb.goforgepoller.metrics.PluginMetrics;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -56,14 +58,17 @@ public class EntryPointLoggerTest {
 
     private LoggableObject service;
     private Log log;
+    private PluginMetrics metrics;
 
     @Before
     public void setUp() throws Exception {
         log = mock(Log.class);
+        when(log.isDebugEnabled()).thenReturn(true);
+        metrics = new PluginMetrics();
         Injector injector = Guice.createInjector(new AbstractModule() {
             @Override
             protected void configure() {
-                bindInterceptor(Matchers.any(), Matchers.annotatedWith(EntryPoint.class), new EntryPointLogger() {
+                bindInterceptor(Matchers.any(), Matchers.annotatedWith(EntryPoint.class), new EntryPointLogger(Providers.of(metrics)) {
                     @Override
                     protected Log getLog(Class<?> declaringClass) {
                         return log;
@@ -93,6 +98,30 @@ public class EntryPointLoggerTest {
         }
     }
 
+    @Test
+    public void recordsCallsAndErrorsOfEachEntryPoint() throws Exception {
+        service.doSomething("a", "b");
+        service.doSomething("a", "b");
+        try {
+            service.failToDoSomething();
+        } catch (RuntimeException e) {
+        }
+
+        assertThat(metrics.forEntryPoint("doSomething").getCalls(), is(2L));
+        assertThat(metrics.forEntryPoint("doSomething").getErrors(), is(0L));
+        assertThat(metrics.forEntryPoint("failToDoSomething").getCalls(), is(1L));
+        assertThat(metrics.forEntryPoint("failToDoSomething").getErrors(), is(1L));
+    }
+
+    @Test
+    public void doesntWriteToDebugLogIfDebugIsDisabled() throws Exception {
+        when(log.isDebugEnabled()).thenReturn(false);
+
+        service.doSomething("a", "b");
+
+        verify(log, never()).debug(anyString(), anyVararg());
+    }
+
     @Test
     public void doesntWriteToLogForNonEntrypointMethods() throws Exception {
         service.doSomethingSilently();
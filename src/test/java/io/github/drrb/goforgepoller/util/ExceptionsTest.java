@@ -19,6 +19,8 @@ package io.github.drrb.goforgepoller.util;
 
 import org.junit.Test;
 
+import java.io.EOFException;
+
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
@@ -32,4 +34,10 @@ public class ExceptionsTest {
         String message = Exceptions.render(problem);
         assertThat(message, is("Module not found (HTTP error (404))"));
     }
+
+    @Test
+    public void exceptionsWithoutMessagesRenderAsTheirType() throws Exception {
+        String message = Exceptions.render(new Exception("Failed to read cache", new EOFException()));
+        assertThat(message, is("Failed to read cache (EOFException)"));
+    }
 }
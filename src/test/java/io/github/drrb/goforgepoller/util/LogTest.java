@@ -17,16 +17,22 @@
  */
 package io.github.drrb.goforgepoller.util;
 
+import com.thoughtworks.go.plugin.api.response.Result;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.LinkedList;
 
 import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 public class LogTest {
 
@@ -35,6 +41,11 @@ public class LogTest {
     @Before
     public void setUp() throws Exception {
         log = spy(new Log(null) {
+            @Override
+            public boolean isDebugEnabled() {
+                return true;
+            }
+
             @Override
             protected void log(Level level, String message) {}
         });
@@ -47,6 +58,32 @@ public class LogTest {
         verify(log).log(Log.Level.DEBUG, "DEBUG: <linked-list>\n  <string>a</string>\n  <string>b</string>\n  <string>c</string>\n</linked-list>");
     }
 
+    @Test
+    public void shouldRenderKnownTypesCompactlyInDebugLog() throws Exception {
+        log.debug("DEBUG: %s, %s", "a", new Result().withErrorMessages("Bad"));
+
+        verify(log).log(Log.Level.DEBUG, "DEBUG: a, Result{successful=false, messages=[Bad]}");
+    }
+
+    @Test
+    public void shouldNotRenderDebugLogArgsIfDebugIsDisabled() throws Exception {
+        Log log = spy(new Log(null) {
+            @Override
+            public boolean isDebugEnabled() {
+                return false;
+            }
+
+            @Override
+            protected void log(Level level, String message) {}
+        });
+        Object argument = mock(Object.class);
+
+        log.debug("DEBUG: %s", argument);
+
+        verify(log, never()).log(any(Log.Level.class), anyString());
+        verifyZeroInteractions(argument);
+    }
+
     @Test
     public void shouldFormatInfoLog() throws Exception {
         log.info("INFO: %s", new LinkedList<>(asList("a", "b", "c")));